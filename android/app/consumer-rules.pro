@@ -0,0 +1,19 @@
+# R8/ProGuard rules applied to apps that consume this library.
+
+# MLDSAProvider registers its services by class name
+# ("com.mldsa.MLDSASignatureSpi$MLDSA65", ...), which JCA instantiates
+# reflectively through the public no-arg constructor.
+-keep class com.mldsa.MLDSASignatureSpi,
+            com.mldsa.MLDSASignatureSpi$*,
+            com.mldsa.MLDSAKeyPairGeneratorSpi,
+            com.mldsa.MLDSAKeyPairGeneratorSpi$*,
+            com.mldsa.MLDSAKeyFactorySpi,
+            com.mldsa.MLDSAKeyFactorySpi$* {
+    public <init>();
+}
+
+# JNI_OnLoad in libmldsa<level>-jni.so looks up com/mldsa/MLDSA<level>Native
+# by name and registers its natives by name and signature.
+-keep class com.mldsa.MLDSA*Native {
+    native <methods>;
+}
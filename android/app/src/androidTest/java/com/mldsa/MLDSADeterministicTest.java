@@ -0,0 +1,154 @@
+package com.mldsa;
+
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests for deterministic signing and the signature memo
+ */
+@RunWith(AndroidJUnit4.class)
+public class MLDSADeterministicTest {
+
+    @Test
+    public void testDeterministicSignature_AllLevels() throws MLDSA.MLDSAException {
+        byte[] message = "Deterministic manifest".getBytes(StandardCharsets.UTF_8);
+
+        for (MLDSA.SecurityLevel level : MLDSA.SecurityLevel.values()) {
+            MLDSA.KeyPair keyPair = MLDSA.generateKeyPairWithSeed(createTestSeed(0x26), level);
+
+            byte[] sig1 = MLDSA.sign(message, keyPair.getSecretKey(), null, level, MLDSA.SigningMode.DETERMINISTIC);
+            byte[] sig2 = MLDSA.sign(message, keyPair.getSecretKey(), null, level, MLDSA.SigningMode.DETERMINISTIC);
+
+            assertArrayEquals("Deterministic signatures must be identical", sig1, sig2);
+            assertEquals(MLDSA.getSignatureSize(level.getValue()), sig1.length);
+            assertTrue(MLDSA.verify(sig1, message, keyPair.getPublicKey(), level));
+        }
+    }
+
+    @Test
+    public void testDeterministicSignature_WithContext() throws MLDSA.MLDSAException {
+        MLDSA.KeyPair keyPair = MLDSA.generateKeyPairWithSeed(createTestSeed(0x31), MLDSA.SecurityLevel.LEVEL_65);
+        byte[] message = "Message with context".getBytes(StandardCharsets.UTF_8);
+        byte[] context1 = "context-1".getBytes(StandardCharsets.UTF_8);
+        byte[] context2 = "context-2".getBytes(StandardCharsets.UTF_8);
+
+        byte[] sig1 = MLDSA.sign(message, keyPair.getSecretKey(), context1,
+                MLDSA.SecurityLevel.LEVEL_65, MLDSA.SigningMode.DETERMINISTIC);
+        byte[] sig2 = MLDSA.sign(message, keyPair.getSecretKey(), context2,
+                MLDSA.SecurityLevel.LEVEL_65, MLDSA.SigningMode.DETERMINISTIC);
+
+        assertFalse("Different contexts must give different signatures", Arrays.equals(sig1, sig2));
+        assertTrue(MLDSA.verify(sig1, message, keyPair.getPublicKey(), context1, MLDSA.SecurityLevel.LEVEL_65));
+        assertFalse(MLDSA.verify(sig1, message, keyPair.getPublicKey(), context2, MLDSA.SecurityLevel.LEVEL_65));
+    }
+
+    @Test
+    public void testHedgedSignatures_StillRandomized() throws MLDSA.MLDSAException {
+        MLDSA.KeyPair keyPair = MLDSA.generateKeyPairWithSeed(createTestSeed(0x44), MLDSA.SecurityLevel.LEVEL_44);
+        byte[] message = "Hedged".getBytes(StandardCharsets.UTF_8);
+
+        byte[] sig1 = MLDSA.sign(message, keyPair.getSecretKey(), null, MLDSA.SecurityLevel.LEVEL_44, MLDSA.SigningMode.HEDGED);
+        byte[] sig2 = MLDSA.sign(message, keyPair.getSecretKey(), null, MLDSA.SecurityLevel.LEVEL_44, MLDSA.SigningMode.HEDGED);
+
+        assertFalse("Hedged signatures should differ", Arrays.equals(sig1, sig2));
+    }
+
+    @Test
+    public void testSignatureCache_ReturnsMemoizedSignature() throws MLDSA.MLDSAException {
+        MLDSA.KeyPair keyPair = MLDSA.generateKeyPairWithSeed(createTestSeed(0x65), MLDSA.SecurityLevel.LEVEL_65);
+        byte[] message = "Replicated manifest".getBytes(StandardCharsets.UTF_8);
+        SignatureCache cache = new SignatureCache(8);
+
+        byte[] sig1 = MLDSA.sign(message, keyPair.getSecretKey(), null,
+                MLDSA.SecurityLevel.LEVEL_65, MLDSA.SigningMode.DETERMINISTIC, cache);
+        assertEquals(1, cache.size());
+
+        byte[] sig2 = MLDSA.sign(message, keyPair.getSecretKey(), null,
+                MLDSA.SecurityLevel.LEVEL_65, MLDSA.SigningMode.DETERMINISTIC, cache);
+        assertEquals(1, cache.size());
+        assertArrayEquals(sig1, sig2);
+
+        // Cached signatures are equal to freshly computed ones
+        byte[] fresh = MLDSA.sign(message, keyPair.getSecretKey(), null,
+                MLDSA.SecurityLevel.LEVEL_65, MLDSA.SigningMode.DETERMINISTIC);
+        assertArrayEquals(fresh, sig2);
+
+        // Mutating a returned signature must not corrupt the cache
+        sig2[0] ^= 0x01;
+        byte[] sig3 = MLDSA.sign(message, keyPair.getSecretKey(), null,
+                MLDSA.SecurityLevel.LEVEL_65, MLDSA.SigningMode.DETERMINISTIC, cache);
+        assertArrayEquals(sig1, sig3);
+    }
+
+    @Test
+    public void testSignatureCache_KeyedByKeyContextAndMessage() throws MLDSA.MLDSAException {
+        MLDSA.KeyPair keyPair1 = MLDSA.generateKeyPairWithSeed(createTestSeed(0x01), MLDSA.SecurityLevel.LEVEL_44);
+        MLDSA.KeyPair keyPair2 = MLDSA.generateKeyPairWithSeed(createTestSeed(0x02), MLDSA.SecurityLevel.LEVEL_44);
+        byte[] message = "Payload".getBytes(StandardCharsets.UTF_8);
+        byte[] context = "ctx".getBytes(StandardCharsets.UTF_8);
+        SignatureCache cache = new SignatureCache(16);
+
+        MLDSA.sign(message, keyPair1.getSecretKey(), null, MLDSA.SecurityLevel.LEVEL_44, MLDSA.SigningMode.DETERMINISTIC, cache);
+        MLDSA.sign(message, keyPair2.getSecretKey(), null, MLDSA.SecurityLevel.LEVEL_44, MLDSA.SigningMode.DETERMINISTIC, cache);
+        MLDSA.sign(message, keyPair1.getSecretKey(), context, MLDSA.SecurityLevel.LEVEL_44, MLDSA.SigningMode.DETERMINISTIC, cache);
+        byte[] sig = MLDSA.sign("Other payload".getBytes(StandardCharsets.UTF_8), keyPair1.getSecretKey(), null,
+                MLDSA.SecurityLevel.LEVEL_44, MLDSA.SigningMode.DETERMINISTIC, cache);
+
+        assertEquals(4, cache.size());
+        assertTrue(MLDSA.verify(sig, "Other payload".getBytes(StandardCharsets.UTF_8),
+                keyPair1.getPublicKey(), MLDSA.SecurityLevel.LEVEL_44));
+    }
+
+    @Test
+    public void testSignatureCache_IsBounded() throws MLDSA.MLDSAException {
+        MLDSA.KeyPair keyPair = MLDSA.generateKeyPairWithSeed(createTestSeed(0x87), MLDSA.SecurityLevel.LEVEL_44);
+        SignatureCache cache = new SignatureCache(2);
+
+        for (int i = 0; i < 5; i++) {
+            byte[] message = ("Message " + i).getBytes(StandardCharsets.UTF_8);
+            MLDSA.sign(message, keyPair.getSecretKey(), null,
+                    MLDSA.SecurityLevel.LEVEL_44, MLDSA.SigningMode.DETERMINISTIC, cache);
+        }
+
+        assertEquals(2, cache.size());
+
+        cache.clear();
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    public void testSignatureCache_RejectsHedgedMode() throws MLDSA.MLDSAException {
+        MLDSA.KeyPair keyPair = MLDSA.generateKeyPair(MLDSA.SecurityLevel.LEVEL_44);
+        SignatureCache cache = new SignatureCache(4);
+
+        try {
+            MLDSA.sign(new byte[]{1, 2, 3}, keyPair.getSecretKey(), null,
+                    MLDSA.SecurityLevel.LEVEL_44, MLDSA.SigningMode.HEDGED, cache);
+            fail("Should throw exception for hedged mode with a cache");
+        } catch (MLDSA.MLDSAException e) {
+            assertEquals(-100, e.getErrorCode());
+        }
+        assertEquals(0, cache.size());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testSignatureCache_InvalidSize() {
+        new SignatureCache(0);
+    }
+
+    /**
+     * Helper method to create a 32-byte test seed filled with a repeating pattern
+     */
+    private byte[] createTestSeed(int fillByte) {
+        byte[] seed = new byte[32];
+        Arrays.fill(seed, (byte) fillByte);
+        return seed;
+    }
+}
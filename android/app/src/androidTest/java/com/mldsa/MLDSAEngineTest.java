@@ -0,0 +1,263 @@
+package com.mldsa;
+
+import android.util.Log;
+
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+
+import org.junit.After;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+import static org.junit.Assert.*;
+
+/**
+ * Cross-engine equivalence tests: the pure-Java engine must produce the same keys
+ * and deterministic signatures as the native engine, and each must accept the
+ * other's signatures. Seeds are the vectors used in MLDSASeedTest.
+ */
+@RunWith(AndroidJUnit4.class)
+public class MLDSAEngineTest {
+
+    private static final String TAG = "MLDSAEngineTest";
+
+    private final MLDSAEngine nativeEngine = MLDSA.nativeEngine();
+    private final MLDSAEngine javaEngine = MLDSA.javaEngine();
+
+    @After
+    public void restoreEngine() {
+        MLDSA.setEngine(null);
+    }
+
+    @Test
+    public void testEngineSelection() throws MLDSA.MLDSAException {
+        for (MLDSA.SecurityLevel level : MLDSA.SecurityLevel.values()) {
+            assertTrue(nativeEngine.isAvailable(level));
+            assertTrue(javaEngine.isAvailable(level));
+            assertSame(nativeEngine, MLDSA.getEngine(level));
+        }
+
+        MLDSA.setEngine(javaEngine);
+        assertSame(javaEngine, MLDSA.getEngine(MLDSA.SecurityLevel.LEVEL_65));
+
+        MLDSA.setEngine(null);
+        assertSame(nativeEngine, MLDSA.getEngine(MLDSA.SecurityLevel.LEVEL_65));
+    }
+
+    @Test
+    public void testForcedEngineUnavailable() {
+        // An engine that cannot serve any level, standing in for a native library that failed to load
+        MLDSA.setEngine((MLDSAEngine) Proxy.newProxyInstance(MLDSAEngine.class.getClassLoader(),
+                new Class<?>[]{MLDSAEngine.class}, new InvocationHandler() {
+                    @Override
+                    public Object invoke(Object proxy, Method method, Object[] args) {
+                        if (method.getName().equals("getName")) {
+                            return "unavailable";
+                        }
+                        if (method.getName().equals("isAvailable")) {
+                            return false;
+                        }
+                        throw new AssertionError("Unexpected call to " + method.getName());
+                    }
+                }));
+
+        try {
+            MLDSA.generateKeyPair(MLDSA.SecurityLevel.LEVEL_65);
+            fail("Expected MLDSAException");
+        } catch (MLDSA.MLDSAException e) {
+            assertEquals(-100, e.getErrorCode());
+            assertTrue(e.getMessage().contains("ML-DSA-65"));
+        }
+    }
+
+    @Test
+    public void testKeyGenerationEquivalence_SeedVectors() {
+        for (byte[] seed : seedVectors()) {
+            for (MLDSA.SecurityLevel level : MLDSA.SecurityLevel.values()) {
+                byte[][] nativeKeys = generate(nativeEngine, level, seed);
+                byte[][] javaKeys = generate(javaEngine, level, seed);
+
+                assertArrayEquals("Public keys must match for " + level, nativeKeys[0], javaKeys[0]);
+                assertArrayEquals("Secret keys must match for " + level, nativeKeys[1], javaKeys[1]);
+            }
+        }
+    }
+
+    @Test
+    public void testDeterministicSignatureEquivalence_SeedVectors() {
+        byte[] context = "engine-equivalence".getBytes(StandardCharsets.UTF_8);
+
+        for (byte[] seed : seedVectors()) {
+            for (MLDSA.SecurityLevel level : MLDSA.SecurityLevel.values()) {
+                byte[][] keys = generate(nativeEngine, level, seed);
+                for (int size : new int[]{0, 1, 32, 1000}) {
+                    byte[] message = createMessage(size, seed[0]);
+                    byte[] ctx = size % 2 == 0 ? null : context;
+
+                    byte[] nativeSig = sign(nativeEngine, level, message, keys[1], ctx, true);
+                    byte[] javaSig = sign(javaEngine, level, message, keys[1], ctx, true);
+
+                    assertArrayEquals("Deterministic signatures must match for " + level, nativeSig, javaSig);
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testCrossVerification() {
+        byte[] message = "Cross-engine verification".getBytes(StandardCharsets.UTF_8);
+
+        for (MLDSA.SecurityLevel level : MLDSA.SecurityLevel.values()) {
+            byte[][] keys = generate(javaEngine, level, createTestSeed(0xAB));
+
+            byte[] nativeSig = sign(nativeEngine, level, message, keys[1], null, false);
+            byte[] javaSig = sign(javaEngine, level, message, keys[1], null, false);
+
+            assertEquals(0, javaEngine.verify(level, nativeSig, message, keys[0], null));
+            assertEquals(0, nativeEngine.verify(level, javaSig, message, keys[0], null));
+
+            // Tampered signatures are rejected by both engines
+            javaSig[javaSig.length / 2] ^= 0x01;
+            assertEquals(-1, javaEngine.verify(level, javaSig, message, keys[0], null));
+            assertEquals(-1, nativeEngine.verify(level, javaSig, message, keys[0], null));
+        }
+    }
+
+    @Test
+    public void testTruncatedKeysRejected() {
+        byte[] message = "Truncated keys".getBytes(StandardCharsets.UTF_8);
+
+        for (MLDSA.SecurityLevel level : MLDSA.SecurityLevel.values()) {
+            byte[][] keys = generate(javaEngine, level, createTestSeed(0x42));
+            byte[] signature = sign(javaEngine, level, message, keys[1], null, true);
+            byte[] shortPublicKey = Arrays.copyOf(keys[0], keys[0].length - 1);
+            byte[] shortSecretKey = Arrays.copyOf(keys[1], keys[1].length - 1);
+
+            for (MLDSAEngine engine : new MLDSAEngine[]{nativeEngine, javaEngine}) {
+                byte[] out = new byte[level.getSignatureSize()];
+                assertEquals(engine.getName(), -100, engine.sign(level, message, shortSecretKey, null, true, out));
+                assertEquals(engine.getName(), -100, engine.verify(level, signature, message, shortPublicKey, null));
+            }
+        }
+    }
+
+    @Test
+    public void testJavaEngineThroughMLDSA() throws MLDSA.MLDSAException {
+        MLDSA.setEngine(javaEngine);
+
+        for (MLDSA.SecurityLevel level : MLDSA.SecurityLevel.values()) {
+            MLDSA.KeyPair keyPair = MLDSA.generateKeyPair(level);
+            byte[] message = "Pure-Java engine".getBytes(StandardCharsets.UTF_8);
+
+            byte[] signature = MLDSA.sign(message, keyPair.getSecretKey(), level);
+            assertEquals(level.getSignatureSize(), signature.length);
+            assertTrue(MLDSA.verify(signature, message, keyPair.getPublicKey(), level));
+            assertFalse(MLDSA.verify(signature, "Other".getBytes(StandardCharsets.UTF_8),
+                    keyPair.getPublicKey(), level));
+        }
+    }
+
+    @Test
+    public void testThroughputComparison_SmallMessages() {
+        byte[] message = createMessage(64, 0x30);
+        int iterations = 200;
+
+        for (MLDSA.SecurityLevel level : MLDSA.SecurityLevel.values()) {
+            byte[][] keys = generate(nativeEngine, level, createTestSeed(0x42));
+            byte[] signature = sign(nativeEngine, level, message, keys[1], null, true);
+
+            for (MLDSAEngine engine : new MLDSAEngine[]{nativeEngine, javaEngine}) {
+                // Warm up the JIT before measuring
+                measure(engine, level, message, keys, signature, iterations);
+                double[] opsPerSecond = measure(engine, level, message, keys, signature, iterations);
+
+                Log.i(TAG, String.format("%s %s: sign %.0f ops/s, verify %.0f ops/s",
+                        level, engine.getName(), opsPerSecond[0], opsPerSecond[1]));
+                assertTrue(opsPerSecond[0] > 0);
+                assertTrue(opsPerSecond[1] > 0);
+            }
+        }
+    }
+
+    private static double[] measure(MLDSAEngine engine, MLDSA.SecurityLevel level, byte[] message,
+                                    byte[][] keys, byte[] signature, int iterations) {
+        byte[] out = new byte[level.getSignatureSize()];
+
+        long start = System.nanoTime();
+        for (int i = 0; i < iterations; i++) {
+            assertTrue(engine.sign(level, message, keys[1], null, true, out) > 0);
+        }
+        long signNanos = System.nanoTime() - start;
+
+        start = System.nanoTime();
+        for (int i = 0; i < iterations; i++) {
+            assertEquals(0, engine.verify(level, signature, message, keys[0], null));
+        }
+        long verifyNanos = System.nanoTime() - start;
+
+        return new double[]{iterations * 1e9 / signNanos, iterations * 1e9 / verifyNanos};
+    }
+
+    private static byte[][] generate(MLDSAEngine engine, MLDSA.SecurityLevel level, byte[] seed) {
+        byte[] publicKey = new byte[level.getPublicKeySize()];
+        byte[] secretKey = new byte[level.getSecretKeySize()];
+        assertEquals(0, engine.generateKeyPairWithSeed(level, seed, publicKey, secretKey));
+        return new byte[][]{publicKey, secretKey};
+    }
+
+    private static byte[] sign(MLDSAEngine engine, MLDSA.SecurityLevel level, byte[] message,
+                               byte[] secretKey, byte[] context, boolean deterministic) {
+        byte[] signature = new byte[level.getSignatureSize()];
+        int result = engine.sign(level, message, secretKey, context, deterministic, signature);
+        assertEquals(level.getSignatureSize(), result);
+        return signature;
+    }
+
+    /**
+     * Seeds used by MLDSASeedTest
+     */
+    private static byte[][] seedVectors() {
+        byte[] incrementing = new byte[32];
+        for (int i = 0; i < incrementing.length; i++) {
+            incrementing[i] = (byte) i;
+        }
+        byte[] singleBit = createTestSeed(0x00);
+        singleBit[0] ^= 0x01;
+
+        return new byte[][]{
+                createTestSeed(0x42),
+                createTestSeed(0x65),
+                createTestSeed(0x87),
+                createTestSeed(0xAB),
+                createTestSeed(0xCD),
+                createTestSeed(0x99),
+                createTestSeed(0x77),
+                createTestSeed(0x00),
+                createTestSeed(0xFF),
+                incrementing,
+                singleBit
+        };
+    }
+
+    private static byte[] createMessage(int size, int fill) {
+        byte[] message = new byte[size];
+        for (int i = 0; i < size; i++) {
+            message[i] = (byte) (fill + i);
+        }
+        return message;
+    }
+
+    /**
+     * Helper method to create a 32-byte test seed filled with a repeating pattern
+     */
+    private static byte[] createTestSeed(int fillByte) {
+        byte[] seed = new byte[32];
+        Arrays.fill(seed, (byte) fillByte);
+        return seed;
+    }
+}
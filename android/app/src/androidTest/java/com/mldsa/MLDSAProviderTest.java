@@ -0,0 +1,283 @@
+package com.mldsa;
+
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+
+import org.junit.After;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.nio.ByteBuffer;
+import java.security.InvalidKeyException;
+import java.security.Key;
+import java.security.KeyFactory;
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.PrivateKey;
+import java.security.ProviderException;
+import java.security.PublicKey;
+import java.security.Security;
+import java.security.Signature;
+import java.security.SignatureException;
+import java.security.spec.PKCS8EncodedKeySpec;
+import java.security.spec.X509EncodedKeySpec;
+import java.util.Arrays;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests for the JCA provider: streaming Signature, KeyPairGenerator, KeyFactory
+ * encodings and key translation, on both engines.
+ */
+@RunWith(AndroidJUnit4.class)
+public class MLDSAProviderTest {
+
+    private static final String[] OIDS = {
+            "2.16.840.1.101.3.4.3.17", "2.16.840.1.101.3.4.3.18", "2.16.840.1.101.3.4.3.19"
+    };
+
+    @BeforeClass
+    public static void installProvider() {
+        if (Security.getProvider(MLDSAProvider.NAME) == null) {
+            Security.addProvider(new MLDSAProvider());
+        }
+    }
+
+    @After
+    public void restoreEngine() {
+        MLDSA.setEngine(null);
+    }
+
+    @Test
+    public void testStreamingSignMatchesOneShotVerify() throws Exception {
+        for (MLDSAEngine engine : new MLDSAEngine[]{MLDSA.nativeEngine(), MLDSA.javaEngine()}) {
+            MLDSA.setEngine(engine);
+            for (MLDSA.SecurityLevel level : MLDSA.SecurityLevel.values()) {
+                String algorithm = "ML-DSA-" + level.getValue();
+                KeyPair keyPair = KeyPairGenerator.getInstance(algorithm, MLDSAProvider.NAME).generateKeyPair();
+                byte[] message = createMessage(100000, level.getValue());
+
+                Signature signer = Signature.getInstance(algorithm, MLDSAProvider.NAME);
+                signer.initSign(keyPair.getPrivate());
+                for (int off = 0; off < message.length; off += 777) {
+                    signer.update(message, off, Math.min(777, message.length - off));
+                }
+                byte[] signature = signer.sign();
+                assertEquals(level.getSignatureSize(), signature.length);
+
+                // Pure ML-DSA with an empty context, same as MLDSA.sign
+                byte[] publicKey = ((MLDSAPublicKey) keyPair.getPublic()).getKeyBytes();
+                byte[] secretKey = ((MLDSAPrivateKey) keyPair.getPrivate()).getKeyBytes();
+                assertTrue(MLDSA.verify(signature, message, publicKey, level));
+
+                Signature verifier = Signature.getInstance(algorithm, MLDSAProvider.NAME);
+                verifier.initVerify(keyPair.getPublic());
+                verifier.update(message);
+                assertTrue(verifier.verify(MLDSA.sign(message, secretKey, level)));
+            }
+        }
+    }
+
+    @Test
+    public void testDirectAndHeapBuffers() throws Exception {
+        KeyPair keyPair = KeyPairGenerator.getInstance("ML-DSA-65", MLDSAProvider.NAME).generateKeyPair();
+        byte[] message = createMessage(200000, 0x11);
+
+        Signature signer = Signature.getInstance("ML-DSA-65", MLDSAProvider.NAME);
+        signer.initSign(keyPair.getPrivate());
+        signer.update(ByteBuffer.wrap(message));
+        byte[] signature = signer.sign();
+
+        ByteBuffer direct = ByteBuffer.allocateDirect(message.length);
+        direct.put(message);
+        direct.flip();
+
+        Signature verifier = Signature.getInstance("ML-DSA-65", MLDSAProvider.NAME);
+        verifier.initVerify(keyPair.getPublic());
+        verifier.update(direct);
+        assertFalse(direct.hasRemaining());
+        assertTrue(verifier.verify(signature));
+
+        // The verifier is reset after verify(); byte-wise updates give the same result
+        for (byte b : message) {
+            verifier.update(b);
+        }
+        assertTrue(verifier.verify(signature));
+
+        verifier.update(message);
+        verifier.update((byte) 0);
+        assertFalse(verifier.verify(signature));
+    }
+
+    @Test
+    public void testGenericAlgorithmAndOidAliases() throws Exception {
+        MLDSA.SecurityLevel[] levels = MLDSA.SecurityLevel.values();
+        for (int i = 0; i < levels.length; i++) {
+            KeyPairGenerator generator = KeyPairGenerator.getInstance("ML-DSA", MLDSAProvider.NAME);
+            generator.initialize(levels[i].getValue());
+            KeyPair keyPair = generator.generateKeyPair();
+            assertEquals("ML-DSA-" + levels[i].getValue(), keyPair.getPublic().getAlgorithm());
+
+            byte[] message = createMessage(64, i);
+            Signature signer = Signature.getInstance("ML-DSA", MLDSAProvider.NAME);
+            signer.initSign(keyPair.getPrivate());
+            signer.update(message);
+            byte[] signature = signer.sign();
+
+            Signature verifier = Signature.getInstance("OID." + OIDS[i], MLDSAProvider.NAME);
+            verifier.initVerify(keyPair.getPublic());
+            verifier.update(message);
+            assertTrue(verifier.verify(signature));
+        }
+    }
+
+    @Test(expected = InvalidKeyException.class)
+    public void testLevelMismatchRejected() throws Exception {
+        KeyPair keyPair = KeyPairGenerator.getInstance("ML-DSA-87", MLDSAProvider.NAME).generateKeyPair();
+        Signature.getInstance("ML-DSA-44", MLDSAProvider.NAME).initVerify(keyPair.getPublic());
+    }
+
+    @Test
+    public void testKeyFactoryEncodings() throws Exception {
+        for (MLDSA.SecurityLevel level : MLDSA.SecurityLevel.values()) {
+            String algorithm = "ML-DSA-" + level.getValue();
+            KeyPair keyPair = KeyPairGenerator.getInstance(algorithm, MLDSAProvider.NAME).generateKeyPair();
+            KeyFactory factory = KeyFactory.getInstance(algorithm, MLDSAProvider.NAME);
+
+            byte[] spki = keyPair.getPublic().getEncoded();
+            assertEquals(level.getPublicKeySize() + 22, spki.length);
+            PublicKey publicKey = factory.generatePublic(new X509EncodedKeySpec(spki));
+            assertEquals(keyPair.getPublic(), publicKey);
+
+            PrivateKey privateKey = factory.generatePrivate(new PKCS8EncodedKeySpec(keyPair.getPrivate().getEncoded()));
+            assertEquals(keyPair.getPrivate(), privateKey);
+            assertArrayEquals(keyPair.getPrivate().getEncoded(), privateKey.getEncoded());
+
+            X509EncodedKeySpec spec = factory.getKeySpec(publicKey, X509EncodedKeySpec.class);
+            assertArrayEquals(spki, spec.getEncoded());
+        }
+    }
+
+    @Test
+    public void testTranslateKeyIsCached() throws Exception {
+        final KeyPair keyPair = KeyPairGenerator.getInstance("ML-DSA-44", MLDSAProvider.NAME).generateKeyPair();
+        PublicKey foreign = new PublicKey() {
+            @Override
+            public String getAlgorithm() {
+                return "ML-DSA";
+            }
+
+            @Override
+            public String getFormat() {
+                return "X.509";
+            }
+
+            @Override
+            public byte[] getEncoded() {
+                return keyPair.getPublic().getEncoded();
+            }
+        };
+
+        KeyFactory factory = KeyFactory.getInstance("ML-DSA", MLDSAProvider.NAME);
+        Key first = factory.translateKey(foreign);
+        Key second = factory.translateKey(foreign);
+        assertSame(first, second);
+        assertEquals(keyPair.getPublic(), first);
+
+        byte[] message = createMessage(32, 0x44);
+        Signature signer = Signature.getInstance("ML-DSA-44", MLDSAProvider.NAME);
+        signer.initSign(keyPair.getPrivate());
+        signer.update(message);
+        byte[] signature = signer.sign();
+
+        Signature verifier = Signature.getInstance("ML-DSA-44", MLDSAProvider.NAME);
+        verifier.initVerify(foreign);
+        verifier.update(message);
+        assertTrue(verifier.verify(signature));
+    }
+
+    @Test
+    public void testForeignPrivateKeyNotCached() throws Exception {
+        final KeyPair keyPair = KeyPairGenerator.getInstance("ML-DSA-44", MLDSAProvider.NAME).generateKeyPair();
+        final boolean[] destroyed = {false};
+        PrivateKey foreign = new PrivateKey() {
+            @Override
+            public String getAlgorithm() {
+                return "ML-DSA";
+            }
+
+            @Override
+            public String getFormat() {
+                return "PKCS#8";
+            }
+
+            @Override
+            public byte[] getEncoded() {
+                return keyPair.getPrivate().getEncoded();
+            }
+
+            @Override
+            public boolean isDestroyed() {
+                return destroyed[0];
+            }
+        };
+
+        KeyFactory factory = KeyFactory.getInstance("ML-DSA", MLDSAProvider.NAME);
+        Key first = factory.translateKey(foreign);
+        assertNotSame(first, factory.translateKey(foreign));
+        assertEquals(keyPair.getPrivate(), first);
+
+        destroyed[0] = true;
+        try {
+            Signature.getInstance("ML-DSA-44", MLDSAProvider.NAME).initSign(foreign);
+            fail("Expected InvalidKeyException for a destroyed key");
+        } catch (InvalidKeyException expected) {
+            // Destroyed foreign keys are not translated
+        }
+    }
+
+    @Test
+    public void testByteBufferUpdateBeforeInit() {
+        try {
+            new MLDSASignatureSpi().engineUpdate(ByteBuffer.allocate(16));
+            fail("Expected ProviderException");
+        } catch (ProviderException e) {
+            assertTrue(e.getCause() instanceof SignatureException);
+        }
+    }
+
+    @Test
+    public void testShake256EnginesAgree() {
+        byte[] message = createMessage(5000, 0x5A);
+        for (MLDSA.SecurityLevel level : MLDSA.SecurityLevel.values()) {
+            byte[] nativeOut = new byte[200];
+            byte[] javaOut = new byte[200];
+
+            Shake256 nativeShake = MLDSA.nativeEngine().newShake256(level);
+            Shake256 javaShake = MLDSA.javaEngine().newShake256(level);
+            for (int off = 0; off < message.length; off += 1001) {
+                nativeShake.update(message, off, Math.min(1001, message.length - off));
+                javaShake.update(message, off, Math.min(1001, message.length - off));
+            }
+            // Squeeze in pieces across the rate boundary
+            nativeShake.squeeze(nativeOut, 0, 100);
+            nativeShake.squeeze(nativeOut, 100, 100);
+            javaShake.squeeze(javaOut, 0, 200);
+            assertArrayEquals(javaOut, nativeOut);
+
+            nativeShake.reset();
+            nativeShake.update(message);
+            Arrays.fill(nativeOut, (byte) 0);
+            nativeShake.squeeze(nativeOut, 0, 200);
+            assertArrayEquals(javaOut, nativeOut);
+        }
+    }
+
+    private static byte[] createMessage(int size, int fill) {
+        byte[] message = new byte[size];
+        for (int i = 0; i < size; i++) {
+            message[i] = (byte) (fill + i);
+        }
+        return message;
+    }
+}
@@ -36,6 +36,17 @@ public class MLDSATest {
 
         // Test invalid level
         assertEquals(-1, MLDSA.getPublicKeySize(99));
+        assertEquals(-1, MLDSA.getSecretKeySize(99));
+        assertEquals(-1, MLDSA.getSignatureSize(99));
+    }
+
+    @Test
+    public void testSecurityLevelSizes() {
+        for (MLDSA.SecurityLevel level : MLDSA.SecurityLevel.values()) {
+            assertEquals(MLDSA.getPublicKeySize(level.getValue()), level.getPublicKeySize());
+            assertEquals(MLDSA.getSecretKeySize(level.getValue()), level.getSecretKeySize());
+            assertEquals(MLDSA.getSignatureSize(level.getValue()), level.getSignatureSize());
+        }
     }
 
     @Test
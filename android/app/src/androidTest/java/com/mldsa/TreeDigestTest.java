@@ -0,0 +1,187 @@
+package com.mldsa;
+
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+
+import org.junit.After;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests for the parallel tree digest and the tree-digest sign/verify overloads.
+ */
+@RunWith(AndroidJUnit4.class)
+public class TreeDigestTest {
+
+    @After
+    public void restoreEngine() {
+        MLDSA.setEngine(null);
+    }
+
+    @Test
+    public void testRootIndependentOfSplitAndParallelism() throws Exception {
+        byte[] data = randomBytes(300000, 1);
+        ForkJoinPool single = new ForkJoinPool(1);
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            byte[] expected = new TreeDigest(4096, single).digest(ByteBuffer.wrap(data));
+
+            TreeDigest digest = new TreeDigest(4096, pool);
+            assertArrayEquals(expected, digest.digest(ByteBuffer.wrap(data)));
+
+            // Uneven heap and direct buffers, including an empty one
+            ByteBuffer[] parts = {
+                    ByteBuffer.wrap(data, 0, 1000).slice(),
+                    ByteBuffer.allocate(0),
+                    direct(data, 1000, 123457),
+                    ByteBuffer.wrap(data, 124457, data.length - 124457).slice()
+            };
+            assertArrayEquals(expected, digest.digest(parts));
+            assertEquals(0, parts[0].position());
+
+            for (MLDSA.SecurityLevel level : MLDSA.SecurityLevel.values()) {
+                assertArrayEquals(expected, digest.digest(parts, level));
+            }
+        } finally {
+            single.shutdown();
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    public void testParallelMatchesSequentialReference() throws Exception {
+        byte[] data = randomBytes(50000, 5);
+        int chunkSize = 4096;
+
+        // leaf_i = SHAKE256(0x00 || LE64(i) || chunk_i), root = SHAKE256(0x01 || LE64(chunkSize) || LE64(len) || leaves)
+        Shake256 root = MLDSA.javaEngine().newShake256(MLDSA.SecurityLevel.LEVEL_65);
+        root.update((byte) 0x01);
+        root.update(le64(chunkSize));
+        root.update(le64(data.length));
+        for (int i = 0; i * chunkSize < data.length; i++) {
+            Shake256 leaf = MLDSA.javaEngine().newShake256(MLDSA.SecurityLevel.LEVEL_65);
+            leaf.update((byte) 0x00);
+            leaf.update(le64(i));
+            leaf.update(data, i * chunkSize, Math.min(chunkSize, data.length - i * chunkSize));
+            byte[] leafDigest = new byte[TreeDigest.DIGEST_BYTES];
+            leaf.squeeze(leafDigest, 0, leafDigest.length);
+            root.update(leafDigest);
+        }
+        byte[] expected = new byte[TreeDigest.DIGEST_BYTES];
+        root.squeeze(expected, 0, expected.length);
+
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            assertArrayEquals(expected, new TreeDigest(chunkSize, pool).digest(ByteBuffer.wrap(data)));
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    public void testChunkSizeAndLengthAreBound() throws Exception {
+        byte[] data = randomBytes(10000, 2);
+        byte[] root = new TreeDigest(4096).digest(ByteBuffer.wrap(data));
+
+        assertFalse(Arrays.equals(root, new TreeDigest(8192).digest(ByteBuffer.wrap(data))));
+        assertFalse(Arrays.equals(root, new TreeDigest(4096).digest(ByteBuffer.wrap(data, 0, 9999))));
+        assertEquals(TreeDigest.DIGEST_BYTES, new TreeDigest().digest(ByteBuffer.allocate(0)).length);
+    }
+
+    @Test
+    public void testEnginesAgree() throws Exception {
+        byte[] data = randomBytes(200000, 3);
+
+        MLDSA.setEngine(MLDSA.javaEngine());
+        byte[] javaRoot = new TreeDigest(16384).digest(ByteBuffer.wrap(data));
+
+        MLDSA.setEngine(MLDSA.nativeEngine());
+        byte[] nativeRoot = new TreeDigest(16384).digest(ByteBuffer.wrap(data));
+
+        assertArrayEquals(javaRoot, nativeRoot);
+    }
+
+    @Test
+    public void testFileMatchesBuffersAndSignVerify() throws Exception {
+        byte[] data = randomBytes(3 * 1024 * 1024 + 17, 4);
+        File file = writeTempFile(data);
+        byte[] context = "backup".getBytes(StandardCharsets.UTF_8);
+        TreeDigest digest = new TreeDigest(1 << 16);
+
+        try (RandomAccessFile raf = new RandomAccessFile(file, "r")) {
+            FileChannel channel = raf.getChannel();
+            byte[] root = digest.digest(channel);
+            assertArrayEquals(digest.digest(ByteBuffer.wrap(data)), root);
+            assertTrue(digest.verify(root, channel));
+            assertEquals(0, channel.position());
+
+            for (MLDSA.SecurityLevel level : MLDSA.SecurityLevel.values()) {
+                MLDSA.KeyPair keyPair = MLDSA.generateKeyPair(level);
+                byte[] signature = MLDSA.sign(channel, keyPair.getSecretKey(), context, level, digest);
+
+                assertTrue(MLDSA.verify(signature, channel, keyPair.getPublicKey(), context, level, digest));
+                assertTrue(MLDSA.verify(signature, new ByteBuffer[]{ByteBuffer.wrap(data)},
+                        keyPair.getPublicKey(), context, level, digest));
+                // The root is signed as a pre-hash, never as a pure ML-DSA message
+                assertFalse(MLDSA.verify(signature, root, keyPair.getPublicKey(), context, level));
+                byte[] pureSignature = MLDSA.sign(root, keyPair.getSecretKey(), context, level);
+                assertFalse(MLDSA.verify(pureSignature, channel, keyPair.getPublicKey(), context, level, digest));
+
+                assertFalse(MLDSA.verify(signature, channel, keyPair.getPublicKey(), context, level,
+                        new TreeDigest(1 << 17)));
+                assertFalse(MLDSA.verify(signature, channel, keyPair.getPublicKey(), null, level, digest));
+            }
+        } finally {
+            file.delete();
+        }
+
+        data[data.length / 2] ^= 0x01;
+        MLDSA.KeyPair keyPair = MLDSA.generateKeyPair(MLDSA.SecurityLevel.LEVEL_65);
+        byte[] signature = MLDSA.sign(new ByteBuffer[]{ByteBuffer.wrap(data)}, keyPair.getSecretKey(), context,
+                MLDSA.SecurityLevel.LEVEL_65, digest);
+        data[data.length / 2] ^= 0x01;
+        assertFalse(MLDSA.verify(signature, new ByteBuffer[]{ByteBuffer.wrap(data)}, keyPair.getPublicKey(),
+                context, MLDSA.SecurityLevel.LEVEL_65, digest));
+    }
+
+    private static ByteBuffer direct(byte[] data, int offset, int length) {
+        ByteBuffer buffer = ByteBuffer.allocateDirect(length);
+        buffer.put(data, offset, length);
+        buffer.flip();
+        return buffer;
+    }
+
+    private static byte[] le64(long value) {
+        byte[] out = new byte[8];
+        for (int i = 0; i < 8; i++) {
+            out[i] = (byte) (value >>> (8 * i));
+        }
+        return out;
+    }
+
+    private static File writeTempFile(byte[] data) throws Exception {
+        // java.io.tmpdir is the app's cache directory on Android
+        File file = File.createTempFile("treedigest", ".bin");
+        try (FileOutputStream out = new FileOutputStream(file)) {
+            out.write(data);
+        }
+        return file;
+    }
+
+    private static byte[] randomBytes(int size, long seed) {
+        byte[] data = new byte[size];
+        new Random(seed).nextBytes(data);
+        return data;
+    }
+}
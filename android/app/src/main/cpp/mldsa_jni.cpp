@@ -1,64 +1,171 @@
 /*
  * JNI wrapper for lib-native
+ *
+ * Compiled once per parameter set with MLDSA_JNI_LEVEL set to 44, 65 or 87,
+ * producing libmldsa44-jni.so, libmldsa65-jni.so and libmldsa87-jni.so.
+ * Each library registers its natives on com.mldsa.MLDSA<level>Native from
+ * JNI_OnLoad, so no Java_* symbols are exported or resolved by name.
+ *
+ * Also builds for the host JVM (no __ANDROID__), where errors go to stderr.
  */
 
 #include <jni.h>
 #include <cstring>
+#if defined(__ANDROID__)
 #include <android/log.h>
+#else
+#include <cstdio>
+#endif
 
 extern "C" {
 #include "mldsa_multilevel.h"
+
+// Platform RNG from lib/src/os_rng.c
+void randombytes(uint8_t *out, size_t outlen);
 }
 
-extern "C" {
+#include "mldsa_shake256.h"
+
+#if !defined(MLDSA_JNI_LEVEL)
+#error "MLDSA_JNI_LEVEL must be defined (44, 65 or 87)"
+#endif
+
+#define MLDSA_JNI_CONCAT3_(a, b, c) a##b##c
+#define MLDSA_JNI_CONCAT3(a, b, c) MLDSA_JNI_CONCAT3_(a, b, c)
+#define MLDSA_JNI_STR_(x) #x
+#define MLDSA_JNI_STR(x) MLDSA_JNI_STR_(x)
+
+// lib-native API for this level, e.g. MLDSA_API(keypair) -> MLDSA44_keypair
+#define MLDSA_API(name) MLDSA_JNI_CONCAT3(MLDSA, MLDSA_JNI_LEVEL, _##name)
+
+// Java class backed by this library, e.g. com/mldsa/MLDSA44Native
+#define MLDSA_JNI_CLASS "com/mldsa/MLDSA" MLDSA_JNI_STR(MLDSA_JNI_LEVEL) "Native"
+
+#define MLDSA_JNI_TAG "mldsa-jni"
+
+// Error log: logcat on Android, stderr in host builds (JVM load generator)
+#if defined(__ANDROID__)
+#define MLDSA_JNI_LOGE(...) __android_log_print(ANDROID_LOG_ERROR, MLDSA_JNI_TAG, __VA_ARGS__)
+#else
+#define MLDSA_JNI_LOGE(fmt, ...) fprintf(stderr, MLDSA_JNI_TAG ": " fmt "\n", __VA_ARGS__)
+#endif
+
+// Length of the per-signature randomness `rnd` (FIPS 204, Algorithm 2)
+#define MLDSA_JNI_RNDBYTES 32
+
+// Length of the message representative mu (FIPS 204, Algorithm 7)
+#define MLDSA_JNI_MUBYTES 64
+
+// Encoded secret key and signature sizes of this level (FIPS 204, Table 2)
+#if MLDSA_JNI_LEVEL == 44
+#define MLDSA_JNI_SECRETKEYBYTES 2560
+#define MLDSA_JNI_SIGNATUREBYTES 2420
+#elif MLDSA_JNI_LEVEL == 65
+#define MLDSA_JNI_SECRETKEYBYTES 4032
+#define MLDSA_JNI_SIGNATUREBYTES 3309
+#elif MLDSA_JNI_LEVEL == 87
+#define MLDSA_JNI_SECRETKEYBYTES 4896
+#define MLDSA_JNI_SIGNATUREBYTES 4627
+#else
+#error "MLDSA_JNI_LEVEL must be 44, 65 or 87"
+#endif
+
+/*
+ * Messages up to this size are verified with the arrays pinned through
+ * GetPrimitiveArrayCritical, avoiding the copies GetByteArrayElements may make.
+ * Verification does a fixed amount of work, so GC is only held off briefly.
+ *
+ * Signing never pins: its rejection-sampling loop runs an unbounded number of
+ * iterations and would block GC for milliseconds on every call. Up to this size
+ * the message, key and context are copied onto the stack with GetByteArrayRegion
+ * and the signature is written back with SetByteArrayRegion; larger messages
+ * take the copying path of GetByteArrayElements.
+ */
+#define MLDSA_JNI_CRITICAL_MAX_MESSAGE 4096
+
+/*
+ * lib-native entry points for one parameter set
+ */
+struct MLDSALevelOps {
+    int (*keypair)(uint8_t *pk, uint8_t *sk);
+    int (*keypairInternal)(uint8_t *pk, uint8_t *sk, const uint8_t *seed);
+    int (*signatureInternal)(uint8_t *sig, size_t *siglen,
+                             const uint8_t *m, size_t mlen,
+                             const uint8_t *pre, size_t prelen,
+                             const uint8_t *rnd,
+                             const uint8_t *sk, int externalmu);
+    int (*verify)(const uint8_t *sig, size_t siglen,
+                  const uint8_t *m, size_t mlen,
+                  const uint8_t *ctx, size_t ctxlen,
+                  const uint8_t *pk);
+    int (*verifyInternal)(const uint8_t *sig, size_t siglen,
+                          const uint8_t *m, size_t mlen,
+                          const uint8_t *pre, size_t prelen,
+                          const uint8_t *pk, int externalmu);
+};
+
+static const MLDSALevelOps kLevelOps = {
+    MLDSA_API(keypair),
+    MLDSA_API(keypair_internal),
+    MLDSA_API(signature_internal),
+    MLDSA_API(verify),
+    MLDSA_API(verify_internal),
+};
 
-JNIEXPORT jint JNICALL
-Java_com_mldsa_MLDSA_getPublicKeySize(JNIEnv *env, jclass clazz, jint level) {
-    switch (level) {
-        case 44:
-            return MLDSA44_PUBLICKEYBYTES;
-        case 65:
-            return MLDSA65_PUBLICKEYBYTES;
-        case 87:
-            return MLDSA87_PUBLICKEYBYTES;
-        default:
-            return -1;
+/*
+ * Array access helpers: pinned (critical) or copied (GetByteArrayElements).
+ * No other JNI call may be made while a critical array is held.
+ */
+static jbyte *acquireArray(JNIEnv *env, jbyteArray array, bool critical) {
+    if (array == nullptr) {
+        return nullptr;
+    }
+    if (critical) {
+        return (jbyte *)env->GetPrimitiveArrayCritical(array, nullptr);
     }
+    return env->GetByteArrayElements(array, nullptr);
 }
 
-JNIEXPORT jint JNICALL
-Java_com_mldsa_MLDSA_getSecretKeySize(JNIEnv *env, jclass clazz, jint level) {
-    switch (level) {
-        case 44:
-            return MLDSA44_SECRETKEYBYTES;
-        case 65:
-            return MLDSA65_SECRETKEYBYTES;
-        case 87:
-            return MLDSA87_SECRETKEYBYTES;
-        default:
-            return -1;
+static void releaseArray(JNIEnv *env, jbyteArray array, jbyte *elems, jint mode, bool critical) {
+    if (elems == nullptr) {
+        return;
+    }
+    if (critical) {
+        env->ReleasePrimitiveArrayCritical(array, elems, mode);
+    } else {
+        env->ReleaseByteArrayElements(array, elems, mode);
     }
 }
 
-JNIEXPORT jint JNICALL
-Java_com_mldsa_MLDSA_getSignatureSize(JNIEnv *env, jclass clazz, jint level) {
-    switch (level) {
-        case 44:
-            return MLDSA44_BYTES;
-        case 65:
-            return MLDSA65_BYTES;
-        case 87:
-            return MLDSA87_BYTES;
-        default:
-            return -1;
+/*
+ * ML-DSA.Sign (FIPS 204) with caller-provided randomness: rnd = {0}^32 for
+ * deterministic signing, or drawn with randombytes() by the caller.
+ * Builds the pure ML-DSA domain separation prefix 0 || ctxlen || ctx and calls
+ * the internal signing routine directly.
+ */
+static int signWithRnd(uint8_t *sig, size_t *siglen,
+                       const uint8_t *m, size_t mlen,
+                       const uint8_t *ctx, size_t ctxlen,
+                       const uint8_t rnd[MLDSA_JNI_RNDBYTES],
+                       const uint8_t *sk) {
+    if (ctxlen > 255) {
+        *siglen = 0;
+        return -100; // Invalid parameter
+    }
+
+    uint8_t pre[2 + 255];
+    pre[0] = 0;
+    pre[1] = (uint8_t)ctxlen;
+    if (ctxlen > 0) {
+        memcpy(pre + 2, ctx, ctxlen);
     }
+
+    return kLevelOps.signatureInternal(sig, siglen, m, mlen, pre, 2 + ctxlen, rnd, sk, 0);
 }
 
-JNIEXPORT jint JNICALL
-Java_com_mldsa_MLDSA_nativeGenerateKeyPair(JNIEnv *env, jclass clazz,
-                                             jint level,
-                                             jbyteArray publicKey,
-                                             jbyteArray secretKey) {
+static jint generateKeyPair(JNIEnv *env, jclass clazz,
+                            jbyteArray publicKey,
+                            jbyteArray secretKey) {
     jbyte *pk = env->GetByteArrayElements(publicKey, nullptr);
     jbyte *sk = env->GetByteArrayElements(secretKey, nullptr);
 
@@ -68,20 +175,7 @@ Java_com_mldsa_MLDSA_nativeGenerateKeyPair(JNIEnv *env, jclass clazz,
         return -2; // Out of memory
     }
 
-    int ret;
-    switch (level) {
-        case 44:
-            ret = MLDSA44_keypair((uint8_t *)pk, (uint8_t *)sk);
-            break;
-        case 65:
-            ret = MLDSA65_keypair((uint8_t *)pk, (uint8_t *)sk);
-            break;
-        case 87:
-            ret = MLDSA87_keypair((uint8_t *)pk, (uint8_t *)sk);
-            break;
-        default:
-            ret = -100; // Invalid parameter
-    }
+    int ret = kLevelOps.keypair((uint8_t *)pk, (uint8_t *)sk);
 
     if (ret == 0) {
         env->ReleaseByteArrayElements(publicKey, pk, 0);
@@ -96,12 +190,10 @@ Java_com_mldsa_MLDSA_nativeGenerateKeyPair(JNIEnv *env, jclass clazz,
     return ret;
 }
 
-JNIEXPORT jint JNICALL
-Java_com_mldsa_MLDSA_nativeGenerateKeyPairWithSeed(JNIEnv *env, jclass clazz,
-                                                     jint level,
-                                                     jbyteArray seed,
-                                                     jbyteArray publicKey,
-                                                     jbyteArray secretKey) {
+static jint generateKeyPairWithSeed(JNIEnv *env, jclass clazz,
+                                    jbyteArray seed,
+                                    jbyteArray publicKey,
+                                    jbyteArray secretKey) {
     // Validate seed length (must be 32 bytes)
     if (env->GetArrayLength(seed) != 32) {
         return -100; // Invalid parameter
@@ -118,20 +210,7 @@ Java_com_mldsa_MLDSA_nativeGenerateKeyPairWithSeed(JNIEnv *env, jclass clazz,
         return -2; // Out of memory
     }
 
-    int ret;
-    switch (level) {
-        case 44:
-            ret = MLDSA44_keypair_internal((uint8_t *)pk, (uint8_t *)sk, (const uint8_t *)seedBytes);
-            break;
-        case 65:
-            ret = MLDSA65_keypair_internal((uint8_t *)pk, (uint8_t *)sk, (const uint8_t *)seedBytes);
-            break;
-        case 87:
-            ret = MLDSA87_keypair_internal((uint8_t *)pk, (uint8_t *)sk, (const uint8_t *)seedBytes);
-            break;
-        default:
-            ret = -100; // Invalid parameter
-    }
+    int ret = kLevelOps.keypairInternal((uint8_t *)pk, (uint8_t *)sk, (const uint8_t *)seedBytes);
 
     // Clear seed from memory
     env->ReleaseByteArrayElements(seed, seedBytes, JNI_ABORT);
@@ -149,126 +228,283 @@ Java_com_mldsa_MLDSA_nativeGenerateKeyPairWithSeed(JNIEnv *env, jclass clazz,
     return ret;
 }
 
-JNIEXPORT jint JNICALL
-Java_com_mldsa_MLDSA_nativeSign(JNIEnv *env, jclass clazz,
-                                 jint level,
-                                 jbyteArray message,
-                                 jbyteArray secretKey,
-                                 jbyteArray context,
-                                 jbyteArray signature) {
+static jint sign(JNIEnv *env, jclass clazz,
+                 jbyteArray message,
+                 jbyteArray secretKey,
+                 jbyteArray context,
+                 jboolean deterministic,
+                 jbyteArray signature) {
     jsize mlen = env->GetArrayLength(message);
-    jsize sklen = env->GetArrayLength(secretKey);
     jsize ctxlen = (context != nullptr) ? env->GetArrayLength(context) : 0;
+    if (ctxlen > 255
+            || env->GetArrayLength(secretKey) < MLDSA_JNI_SECRETKEYBYTES
+            || env->GetArrayLength(signature) < MLDSA_JNI_SIGNATUREBYTES) {
+        return -100; // Invalid parameter
+    }
 
-    jbyte *m = env->GetByteArrayElements(message, nullptr);
-    jbyte *sk = env->GetByteArrayElements(secretKey, nullptr);
-    jbyte *ctx = (context != nullptr) ? env->GetByteArrayElements(context, nullptr) : nullptr;
-    jbyte *sig = env->GetByteArrayElements(signature, nullptr);
+    uint8_t rnd[MLDSA_JNI_RNDBYTES] = {0};
+    if (!deterministic) {
+        randombytes(rnd, sizeof(rnd));
+    }
 
-    if (m == nullptr || sk == nullptr || sig == nullptr) {
-        if (m != nullptr) env->ReleaseByteArrayElements(message, m, JNI_ABORT);
-        if (sk != nullptr) env->ReleaseByteArrayElements(secretKey, sk, JNI_ABORT);
-        if (ctx != nullptr) env->ReleaseByteArrayElements(context, ctx, JNI_ABORT);
-        if (sig != nullptr) env->ReleaseByteArrayElements(signature, sig, JNI_ABORT);
-        return -2; // Out of memory
+    uint8_t sk[MLDSA_JNI_SECRETKEYBYTES];
+    uint8_t ctx[255];
+    uint8_t sig[MLDSA_JNI_SIGNATUREBYTES];
+    env->GetByteArrayRegion(secretKey, 0, MLDSA_JNI_SECRETKEYBYTES, (jbyte *)sk);
+    if (ctxlen > 0) {
+        env->GetByteArrayRegion(context, 0, ctxlen, (jbyte *)ctx);
     }
 
-    size_t siglen;
-    int ret;
+    uint8_t small[MLDSA_JNI_CRITICAL_MAX_MESSAGE];
+    jbyte *large = nullptr;
+    const uint8_t *m = small;
+    if (mlen <= MLDSA_JNI_CRITICAL_MAX_MESSAGE) {
+        env->GetByteArrayRegion(message, 0, mlen, (jbyte *)small);
+    } else {
+        large = env->GetByteArrayElements(message, nullptr);
+        m = (const uint8_t *)large;
+    }
 
-    switch (level) {
-        case 44:
-            ret = MLDSA44_signature((uint8_t *)sig, &siglen,
-                                    (const uint8_t *)m, mlen,
-                                    (const uint8_t *)ctx, ctxlen,
-                                    (const uint8_t *)sk);
-            break;
-        case 65:
-            ret = MLDSA65_signature((uint8_t *)sig, &siglen,
-                                    (const uint8_t *)m, mlen,
-                                    (const uint8_t *)ctx, ctxlen,
-                                    (const uint8_t *)sk);
-            break;
-        case 87:
-            ret = MLDSA87_signature((uint8_t *)sig, &siglen,
-                                    (const uint8_t *)m, mlen,
-                                    (const uint8_t *)ctx, ctxlen,
-                                    (const uint8_t *)sk);
-            break;
-        default:
-            ret = -100; // Invalid parameter
-            siglen = 0;
-    }
-
-    env->ReleaseByteArrayElements(message, m, JNI_ABORT);
-    env->ReleaseByteArrayElements(secretKey, sk, JNI_ABORT);
-    if (ctx != nullptr) env->ReleaseByteArrayElements(context, ctx, JNI_ABORT);
+    int ret;
+    size_t siglen = 0;
+    if (m == nullptr) {
+        ret = -2; // Out of memory
+    } else {
+        ret = signWithRnd(sig, &siglen, m, mlen, ctx, ctxlen, rnd, sk);
+    }
 
+    if (large != nullptr) {
+        env->ReleaseByteArrayElements(message, large, JNI_ABORT);
+    }
     if (ret == 0) {
-        env->ReleaseByteArrayElements(signature, sig, 0);
-        return (jint)siglen;
-    } else {
-        env->ReleaseByteArrayElements(signature, sig, JNI_ABORT);
-        return ret;
+        env->SetByteArrayRegion(signature, 0, (jsize)siglen, (const jbyte *)sig);
     }
+    // Clear sensitive data
+    memset(sk, 0, sizeof(sk));
+    memset(rnd, 0, sizeof(rnd));
+
+    return ret == 0 ? (jint)siglen : ret;
 }
 
-JNIEXPORT jint JNICALL
-Java_com_mldsa_MLDSA_nativeVerify(JNIEnv *env, jclass clazz,
-                                   jint level,
-                                   jbyteArray signature,
-                                   jbyteArray message,
-                                   jbyteArray publicKey,
-                                   jbyteArray context) {
+static jint verify(JNIEnv *env, jclass clazz,
+                   jbyteArray signature,
+                   jbyteArray message,
+                   jbyteArray publicKey,
+                   jbyteArray context) {
+    // All lengths are read before any array is pinned
     jsize siglen = env->GetArrayLength(signature);
     jsize mlen = env->GetArrayLength(message);
-    jsize pklen = env->GetArrayLength(publicKey);
     jsize ctxlen = (context != nullptr) ? env->GetArrayLength(context) : 0;
+    bool critical = mlen <= MLDSA_JNI_CRITICAL_MAX_MESSAGE;
+
+    jbyte *sig = acquireArray(env, signature, critical);
+    jbyte *m = acquireArray(env, message, critical);
+    jbyte *pk = acquireArray(env, publicKey, critical);
+    jbyte *ctx = acquireArray(env, context, critical);
+
+    if (sig == nullptr || m == nullptr || pk == nullptr || (context != nullptr && ctx == nullptr)) {
+        releaseArray(env, context, ctx, JNI_ABORT, critical);
+        releaseArray(env, publicKey, pk, JNI_ABORT, critical);
+        releaseArray(env, message, m, JNI_ABORT, critical);
+        releaseArray(env, signature, sig, JNI_ABORT, critical);
+        return -2; // Out of memory
+    }
 
-    jbyte *sig = env->GetByteArrayElements(signature, nullptr);
-    jbyte *m = env->GetByteArrayElements(message, nullptr);
-    jbyte *pk = env->GetByteArrayElements(publicKey, nullptr);
-    jbyte *ctx = (context != nullptr) ? env->GetByteArrayElements(context, nullptr) : nullptr;
+    int ret = kLevelOps.verify((const uint8_t *)sig, siglen,
+                               (const uint8_t *)m, mlen,
+                               (const uint8_t *)ctx, ctxlen,
+                               (const uint8_t *)pk);
+
+    // Release in reverse order of acquisition
+    releaseArray(env, context, ctx, JNI_ABORT, critical);
+    releaseArray(env, publicKey, pk, JNI_ABORT, critical);
+    releaseArray(env, message, m, JNI_ABORT, critical);
+    releaseArray(env, signature, sig, JNI_ABORT, critical);
+
+    return ret;
+}
+
+/*
+ * ML-DSA.Sign_internal on a precomputed mu = H(tr || M', 64) (external mu).
+ * All inputs are small and fixed-size; like sign() they are copied rather than
+ * pinned, since the rejection-sampling loop must not run in a critical region.
+ */
+static jint signMu(JNIEnv *env, jclass clazz,
+                   jbyteArray mu,
+                   jbyteArray secretKey,
+                   jboolean deterministic,
+                   jbyteArray signature) {
+    if (env->GetArrayLength(mu) != MLDSA_JNI_MUBYTES
+            || env->GetArrayLength(secretKey) < MLDSA_JNI_SECRETKEYBYTES
+            || env->GetArrayLength(signature) < MLDSA_JNI_SIGNATUREBYTES) {
+        return -100; // Invalid parameter
+    }
+
+    uint8_t rnd[MLDSA_JNI_RNDBYTES] = {0};
+    if (!deterministic) {
+        randombytes(rnd, sizeof(rnd));
+    }
+
+    uint8_t m[MLDSA_JNI_MUBYTES];
+    uint8_t sk[MLDSA_JNI_SECRETKEYBYTES];
+    uint8_t sig[MLDSA_JNI_SIGNATUREBYTES];
+    env->GetByteArrayRegion(mu, 0, MLDSA_JNI_MUBYTES, (jbyte *)m);
+    env->GetByteArrayRegion(secretKey, 0, MLDSA_JNI_SECRETKEYBYTES, (jbyte *)sk);
+
+    size_t siglen = 0;
+    int ret = kLevelOps.signatureInternal(sig, &siglen, m, MLDSA_JNI_MUBYTES,
+                                          nullptr, 0, rnd, sk, 1);
+
+    if (ret == 0) {
+        env->SetByteArrayRegion(signature, 0, (jsize)siglen, (const jbyte *)sig);
+    }
+    // Clear sensitive data
+    memset(sk, 0, sizeof(sk));
+    memset(rnd, 0, sizeof(rnd));
+
+    return ret == 0 ? (jint)siglen : ret;
+}
+
+/*
+ * ML-DSA.Verify_internal on a precomputed mu (external mu)
+ */
+static jint verifyMu(JNIEnv *env, jclass clazz,
+                     jbyteArray signature,
+                     jbyteArray mu,
+                     jbyteArray publicKey) {
+    jsize siglen = env->GetArrayLength(signature);
+    if (env->GetArrayLength(mu) != MLDSA_JNI_MUBYTES) {
+        return -100; // Invalid parameter
+    }
+
+    jbyte *sig = acquireArray(env, signature, true);
+    jbyte *m = acquireArray(env, mu, true);
+    jbyte *pk = acquireArray(env, publicKey, true);
 
     if (sig == nullptr || m == nullptr || pk == nullptr) {
-        if (sig != nullptr) env->ReleaseByteArrayElements(signature, sig, JNI_ABORT);
-        if (m != nullptr) env->ReleaseByteArrayElements(message, m, JNI_ABORT);
-        if (pk != nullptr) env->ReleaseByteArrayElements(publicKey, pk, JNI_ABORT);
-        if (ctx != nullptr) env->ReleaseByteArrayElements(context, ctx, JNI_ABORT);
+        releaseArray(env, publicKey, pk, JNI_ABORT, true);
+        releaseArray(env, mu, m, JNI_ABORT, true);
+        releaseArray(env, signature, sig, JNI_ABORT, true);
         return -2; // Out of memory
     }
 
-    int ret;
+    int ret = kLevelOps.verifyInternal((const uint8_t *)sig, siglen,
+                                       (const uint8_t *)m, MLDSA_JNI_MUBYTES,
+                                       nullptr, 0,
+                                       (const uint8_t *)pk, 1);
 
-    switch (level) {
-        case 44:
-            ret = MLDSA44_verify((const uint8_t *)sig, siglen,
-                                 (const uint8_t *)m, mlen,
-                                 (const uint8_t *)ctx, ctxlen,
-                                 (const uint8_t *)pk);
-            break;
-        case 65:
-            ret = MLDSA65_verify((const uint8_t *)sig, siglen,
-                                 (const uint8_t *)m, mlen,
-                                 (const uint8_t *)ctx, ctxlen,
-                                 (const uint8_t *)pk);
-            break;
-        case 87:
-            ret = MLDSA87_verify((const uint8_t *)sig, siglen,
-                                 (const uint8_t *)m, mlen,
-                                 (const uint8_t *)ctx, ctxlen,
-                                 (const uint8_t *)pk);
-            break;
-        default:
-            ret = -100; // Invalid parameter
-    }
-
-    env->ReleaseByteArrayElements(signature, sig, JNI_ABORT);
-    env->ReleaseByteArrayElements(message, m, JNI_ABORT);
-    env->ReleaseByteArrayElements(publicKey, pk, JNI_ABORT);
-    if (ctx != nullptr) env->ReleaseByteArrayElements(context, ctx, JNI_ABORT);
+    releaseArray(env, publicKey, pk, JNI_ABORT, true);
+    releaseArray(env, mu, m, JNI_ABORT, true);
+    releaseArray(env, signature, sig, JNI_ABORT, true);
 
     return ret;
 }
 
-} // extern "C"
+/*
+ * Incremental SHAKE256 on a state kept in a Java byte[] (see mldsa_shake256.h).
+ * Bounds are checked on the Java side; callers split large inputs so the
+ * critical sections stay short.
+ */
+static jint shake256StateBytes(JNIEnv *env, jclass clazz) {
+    return (jint)mldsa_shake256_state_bytes();
+}
+
+static void shake256Init(JNIEnv *env, jclass clazz, jbyteArray state) {
+    jbyte *st = acquireArray(env, state, true);
+    if (st == nullptr) {
+        return;
+    }
+    mldsa_shake256_init((uint8_t *)st);
+    releaseArray(env, state, st, 0, true);
+}
+
+static void shake256Absorb(JNIEnv *env, jclass clazz, jbyteArray state,
+                           jbyteArray input, jint offset, jint length) {
+    jbyte *st = acquireArray(env, state, true);
+    jbyte *in = acquireArray(env, input, true);
+    if (st == nullptr || in == nullptr) {
+        releaseArray(env, input, in, JNI_ABORT, true);
+        releaseArray(env, state, st, JNI_ABORT, true);
+        return;
+    }
+    mldsa_shake256_absorb((uint8_t *)st, (const uint8_t *)in + offset, (size_t)length);
+    releaseArray(env, input, in, JNI_ABORT, true);
+    releaseArray(env, state, st, 0, true);
+}
+
+static void shake256AbsorbDirect(JNIEnv *env, jclass clazz, jbyteArray state,
+                                 jobject buffer, jint offset, jint length) {
+    // Direct buffers are not moved by the GC, so only the state is pinned
+    const uint8_t *in = (const uint8_t *)env->GetDirectBufferAddress(buffer);
+    if (in == nullptr) {
+        return;
+    }
+    jbyte *st = acquireArray(env, state, true);
+    if (st == nullptr) {
+        return;
+    }
+    mldsa_shake256_absorb((uint8_t *)st, in + offset, (size_t)length);
+    releaseArray(env, state, st, 0, true);
+}
+
+static void shake256Finalize(JNIEnv *env, jclass clazz, jbyteArray state) {
+    jbyte *st = acquireArray(env, state, true);
+    if (st == nullptr) {
+        return;
+    }
+    mldsa_shake256_finalize((uint8_t *)st);
+    releaseArray(env, state, st, 0, true);
+}
+
+static void shake256Squeeze(JNIEnv *env, jclass clazz, jbyteArray state,
+                            jbyteArray output, jint offset, jint length) {
+    jbyte *st = acquireArray(env, state, true);
+    jbyte *out = acquireArray(env, output, true);
+    if (st == nullptr || out == nullptr) {
+        releaseArray(env, output, out, JNI_ABORT, true);
+        releaseArray(env, state, st, JNI_ABORT, true);
+        return;
+    }
+    mldsa_shake256_squeeze((uint8_t *)out + offset, (size_t)length, (uint8_t *)st);
+    releaseArray(env, output, out, 0, true);
+    releaseArray(env, state, st, 0, true);
+}
+
+static const JNINativeMethod kNativeMethods[] = {
+    {(char *)"generateKeyPair", (char *)"([B[B)I", (void *)generateKeyPair},
+    {(char *)"generateKeyPairWithSeed", (char *)"([B[B[B)I", (void *)generateKeyPairWithSeed},
+    {(char *)"sign", (char *)"([B[B[BZ[B)I", (void *)sign},
+    {(char *)"verify", (char *)"([B[B[B[B)I", (void *)verify},
+    {(char *)"signMu", (char *)"([B[BZ[B)I", (void *)signMu},
+    {(char *)"verifyMu", (char *)"([B[B[B)I", (void *)verifyMu},
+    {(char *)"shake256StateBytes", (char *)"()I", (void *)shake256StateBytes},
+    {(char *)"shake256Init", (char *)"([B)V", (void *)shake256Init},
+    {(char *)"shake256Absorb", (char *)"([B[BII)V", (void *)shake256Absorb},
+    {(char *)"shake256AbsorbDirect", (char *)"([BLjava/nio/ByteBuffer;II)V", (void *)shake256AbsorbDirect},
+    {(char *)"shake256Finalize", (char *)"([B)V", (void *)shake256Finalize},
+    {(char *)"shake256Squeeze", (char *)"([B[BII)V", (void *)shake256Squeeze},
+};
+
+extern "C" JNIEXPORT jint JNICALL
+JNI_OnLoad(JavaVM *vm, void *reserved) {
+    JNIEnv *env = nullptr;
+    if (vm->GetEnv((void **)&env, JNI_VERSION_1_6) != JNI_OK) {
+        return JNI_ERR;
+    }
+
+    jclass clazz = env->FindClass(MLDSA_JNI_CLASS);
+    if (clazz == nullptr) {
+        MLDSA_JNI_LOGE("Class %s not found", MLDSA_JNI_CLASS);
+        return JNI_ERR;
+    }
+
+    jint registered = env->RegisterNatives(clazz, kNativeMethods,
+                                           sizeof(kNativeMethods) / sizeof(kNativeMethods[0]));
+    env->DeleteLocalRef(clazz);
+    if (registered != JNI_OK) {
+        MLDSA_JNI_LOGE("RegisterNatives failed for %s", MLDSA_JNI_CLASS);
+        return JNI_ERR;
+    }
+
+    return JNI_VERSION_1_6;
+}
@@ -0,0 +1,686 @@
+package com.mldsa;
+
+import java.security.SecureRandom;
+import java.util.Arrays;
+
+/**
+ * Pure-Java ML-DSA engine (FIPS 204), used when the native libraries cannot be
+ * loaded or when selected explicitly.
+ *
+ * Produces byte-identical keys and deterministic signatures to the native engine.
+ * Each thread keeps one preallocated workspace per parameter set, so the NTT,
+ * sampling and packing loops run without allocating.
+ */
+public final class JavaMLDSAEngine implements MLDSAEngine {
+
+    public static final String NAME = "java";
+
+    private static final int N = Poly.N;
+
+    private static final SecureRandom RANDOM = new SecureRandom();
+
+    private static final ThreadLocal<Workspace[]> WORKSPACES = new ThreadLocal<Workspace[]>() {
+        @Override
+        protected Workspace[] initialValue() {
+            return new Workspace[MLDSA.SecurityLevel.values().length];
+        }
+    };
+
+    @Override
+    public String getName() {
+        return NAME;
+    }
+
+    @Override
+    public boolean isAvailable(MLDSA.SecurityLevel level) {
+        return true;
+    }
+
+    @Override
+    public int generateKeyPair(MLDSA.SecurityLevel level, byte[] publicKey, byte[] secretKey) {
+        byte[] seed = new byte[MLDSAParams.SEEDBYTES];
+        RANDOM.nextBytes(seed);
+        try {
+            return generateKeyPairWithSeed(level, seed, publicKey, secretKey);
+        } finally {
+            Arrays.fill(seed, (byte) 0);
+        }
+    }
+
+    @Override
+    public int generateKeyPairWithSeed(MLDSA.SecurityLevel level, byte[] seed, byte[] publicKey, byte[] secretKey) {
+        MLDSAParams p = MLDSAParams.forLevel(level);
+        if (seed == null || seed.length != MLDSAParams.SEEDBYTES
+                || publicKey == null || publicKey.length < p.publicKeyBytes
+                || secretKey == null || secretKey.length < p.secretKeyBytes) {
+            return -100; // Invalid parameter
+        }
+
+        Workspace ws = workspace(p);
+        try {
+            keyPairInternal(p, ws, seed, publicKey, secretKey);
+        } finally {
+            ws.clear();
+        }
+        return 0;
+    }
+
+    @Override
+    public int sign(MLDSA.SecurityLevel level, byte[] message, byte[] secretKey, byte[] context,
+                    boolean deterministic, byte[] signature) {
+        MLDSAParams p = MLDSAParams.forLevel(level);
+        if (message == null || secretKey == null || secretKey.length < p.secretKeyBytes
+                || signature == null || signature.length < p.signatureBytes
+                || (context != null && context.length > MLDSA.MAX_CONTEXT_LENGTH)) {
+            return -100; // Invalid parameter
+        }
+
+        Workspace ws = workspace(p);
+        try {
+            // mu = H(tr || 0 || ctxlen || ctx || M, 64)
+            Keccak h = ws.shake256;
+            h.reset();
+            h.absorb(secretKey, 2 * MLDSAParams.SEEDBYTES, MLDSAParams.TRBYTES);
+            absorbPrefix(h, context);
+            h.absorb(message, 0, message.length);
+            h.squeeze(ws.mu, 0, MLDSAParams.CRHBYTES);
+
+            signWithMu(p, ws, secretKey, deterministic, signature);
+        } finally {
+            ws.clear();
+        }
+        return p.signatureBytes;
+    }
+
+    @Override
+    public int verify(MLDSA.SecurityLevel level, byte[] signature, byte[] message, byte[] publicKey, byte[] context) {
+        MLDSAParams p = MLDSAParams.forLevel(level);
+        if (signature == null || message == null || publicKey == null || publicKey.length != p.publicKeyBytes
+                || (context != null && context.length > MLDSA.MAX_CONTEXT_LENGTH)) {
+            return -100; // Invalid parameter
+        }
+        if (signature.length != p.signatureBytes) {
+            return -1;
+        }
+
+        Workspace ws = workspace(p);
+
+        // mu = H(H(pk, 64) || 0 || ctxlen || ctx || M, 64)
+        Keccak h = ws.shake256;
+        h.reset();
+        h.absorb(publicKey, 0, publicKey.length);
+        h.squeeze(ws.tr, 0, MLDSAParams.TRBYTES);
+        h.reset();
+        h.absorb(ws.tr, 0, MLDSAParams.TRBYTES);
+        absorbPrefix(h, context);
+        h.absorb(message, 0, message.length);
+        h.squeeze(ws.mu, 0, MLDSAParams.CRHBYTES);
+
+        return verifyInternal(p, ws, signature, publicKey) ? 0 : -1;
+    }
+
+    @Override
+    public int signMu(MLDSA.SecurityLevel level, byte[] mu, byte[] secretKey, boolean deterministic,
+                      byte[] signature) {
+        MLDSAParams p = MLDSAParams.forLevel(level);
+        if (mu == null || mu.length != MLDSAParams.CRHBYTES
+                || secretKey == null || secretKey.length < p.secretKeyBytes
+                || signature == null || signature.length < p.signatureBytes) {
+            return -100; // Invalid parameter
+        }
+
+        Workspace ws = workspace(p);
+        try {
+            System.arraycopy(mu, 0, ws.mu, 0, MLDSAParams.CRHBYTES);
+            signWithMu(p, ws, secretKey, deterministic, signature);
+        } finally {
+            ws.clear();
+        }
+        return p.signatureBytes;
+    }
+
+    @Override
+    public int verifyMu(MLDSA.SecurityLevel level, byte[] signature, byte[] mu, byte[] publicKey) {
+        MLDSAParams p = MLDSAParams.forLevel(level);
+        if (signature == null || mu == null || mu.length != MLDSAParams.CRHBYTES
+                || publicKey == null || publicKey.length != p.publicKeyBytes) {
+            return -100; // Invalid parameter
+        }
+        if (signature.length != p.signatureBytes) {
+            return -1;
+        }
+
+        Workspace ws = workspace(p);
+        System.arraycopy(mu, 0, ws.mu, 0, MLDSAParams.CRHBYTES);
+        return verifyInternal(p, ws, signature, publicKey) ? 0 : -1;
+    }
+
+    @Override
+    public Shake256 newShake256(MLDSA.SecurityLevel level) {
+        return new KeccakShake256();
+    }
+
+    private static void signWithMu(MLDSAParams p, Workspace ws, byte[] secretKey, boolean deterministic,
+                                   byte[] signature) {
+        if (deterministic) {
+            Arrays.fill(ws.rnd, (byte) 0);
+        } else {
+            RANDOM.nextBytes(ws.rnd);
+        }
+        signInternal(p, ws, secretKey, signature);
+    }
+
+    private static void absorbPrefix(Keccak h, byte[] context) {
+        int ctxlen = context != null ? context.length : 0;
+        h.absorb((byte) 0);
+        h.absorb((byte) ctxlen);
+        if (ctxlen > 0) {
+            h.absorb(context, 0, ctxlen);
+        }
+    }
+
+    /**
+     * ML-DSA.KeyGen_internal (FIPS 204, Algorithm 6)
+     */
+    private static void keyPairInternal(MLDSAParams p, Workspace ws, byte[] seed, byte[] pk, byte[] sk) {
+        int k = p.k;
+        int l = p.l;
+        byte[] seedbuf = ws.seedbuf;
+
+        // (rho, rho', K) = H(xi || k || l, 128)
+        Keccak h = ws.shake256;
+        h.reset();
+        h.absorb(seed, 0, MLDSAParams.SEEDBYTES);
+        h.absorb((byte) k);
+        h.absorb((byte) l);
+        h.squeeze(seedbuf, 0, 2 * MLDSAParams.SEEDBYTES + MLDSAParams.CRHBYTES);
+        int rhoprimeOff = MLDSAParams.SEEDBYTES;
+        int keyOff = MLDSAParams.SEEDBYTES + MLDSAParams.CRHBYTES;
+
+        expandMatrix(p, ws, seedbuf, 0);
+        for (int i = 0; i < l; i++) {
+            sampleEta(p, ws, ws.s1, i * N, seedbuf, rhoprimeOff, i);
+        }
+        for (int i = 0; i < k; i++) {
+            sampleEta(p, ws, ws.s2, i * N, seedbuf, rhoprimeOff, l + i);
+        }
+
+        // t = NTT^-1(A * NTT(s1)) + s2
+        System.arraycopy(ws.s1, 0, ws.z, 0, l * N);
+        Poly.nttVec(ws.z, 0, l);
+        Poly.matrixPointwiseMontgomery(ws.t1, ws.mat, ws.z, k, l);
+        Poly.reduce(ws.t1, 0, k);
+        Poly.invnttTomontVec(ws.t1, 0, k);
+        Poly.add(ws.t1, 0, ws.s2, 0, k);
+        Poly.freeze(ws.t1, 0, k);
+        Poly.power2Round(ws.t1, ws.t0, 0, k);
+
+        // pk = rho || t1
+        System.arraycopy(seedbuf, 0, pk, 0, MLDSAParams.SEEDBYTES);
+        for (int i = 0; i < k; i++) {
+            Poly.pack(pk, MLDSAParams.SEEDBYTES + i * MLDSAParams.POLYT1_PACKEDBYTES, ws.t1, i * N, 10, 0);
+        }
+
+        // tr = H(pk, 64)
+        h.reset();
+        h.absorb(pk, 0, p.publicKeyBytes);
+        h.squeeze(ws.tr, 0, MLDSAParams.TRBYTES);
+
+        // sk = rho || K || tr || s1 || s2 || t0
+        int off = 0;
+        System.arraycopy(seedbuf, 0, sk, off, MLDSAParams.SEEDBYTES);
+        off += MLDSAParams.SEEDBYTES;
+        System.arraycopy(seedbuf, keyOff, sk, off, MLDSAParams.SEEDBYTES);
+        off += MLDSAParams.SEEDBYTES;
+        System.arraycopy(ws.tr, 0, sk, off, MLDSAParams.TRBYTES);
+        off += MLDSAParams.TRBYTES;
+        for (int i = 0; i < l; i++) {
+            Poly.pack(sk, off, ws.s1, i * N, p.etaBits, p.eta);
+            off += p.polyEtaPackedBytes;
+        }
+        for (int i = 0; i < k; i++) {
+            Poly.pack(sk, off, ws.s2, i * N, p.etaBits, p.eta);
+            off += p.polyEtaPackedBytes;
+        }
+        for (int i = 0; i < k; i++) {
+            Poly.pack(sk, off, ws.t0, i * N, Poly.D, 1 << (Poly.D - 1));
+            off += MLDSAParams.POLYT0_PACKEDBYTES;
+        }
+    }
+
+    /**
+     * ML-DSA.Sign_internal (FIPS 204, Algorithm 7) on a precomputed mu and rnd
+     */
+    private static void signInternal(MLDSAParams p, Workspace ws, byte[] sk, byte[] sig) {
+        int k = p.k;
+        int l = p.l;
+
+        // Unpack secret key
+        int off = 2 * MLDSAParams.SEEDBYTES + MLDSAParams.TRBYTES;
+        for (int i = 0; i < l; i++) {
+            Poly.unpack(ws.s1, i * N, sk, off, p.etaBits, p.eta);
+            off += p.polyEtaPackedBytes;
+        }
+        for (int i = 0; i < k; i++) {
+            Poly.unpack(ws.s2, i * N, sk, off, p.etaBits, p.eta);
+            off += p.polyEtaPackedBytes;
+        }
+        for (int i = 0; i < k; i++) {
+            Poly.unpack(ws.t0, i * N, sk, off, Poly.D, 1 << (Poly.D - 1));
+            off += MLDSAParams.POLYT0_PACKEDBYTES;
+        }
+
+        // rho' = H(K || rnd || mu, 64)
+        Keccak h = ws.shake256;
+        h.reset();
+        h.absorb(sk, MLDSAParams.SEEDBYTES, MLDSAParams.SEEDBYTES);
+        h.absorb(ws.rnd, 0, MLDSAParams.RNDBYTES);
+        h.absorb(ws.mu, 0, MLDSAParams.CRHBYTES);
+        h.squeeze(ws.rhoprime, 0, MLDSAParams.CRHBYTES);
+
+        expandMatrix(p, ws, sk, 0);
+        Poly.nttVec(ws.s1, 0, l);
+        Poly.nttVec(ws.s2, 0, k);
+        Poly.nttVec(ws.t0, 0, k);
+
+        int[] y = ws.y;
+        int[] z = ws.z;
+        int[] w1 = ws.w1;
+        int[] w0 = ws.w0;
+        int[] hint = ws.h;
+        int[] cp = ws.cp;
+
+        for (int nonce = 0; ; nonce++) {
+            // y = ExpandMask(rho', kappa)
+            for (int i = 0; i < l; i++) {
+                sampleGamma1(p, ws, y, i * N, ws.rhoprime, l * nonce + i);
+            }
+
+            // w = NTT^-1(A * NTT(y)), (w1, w0) = Decompose(w)
+            System.arraycopy(y, 0, z, 0, l * N);
+            Poly.nttVec(z, 0, l);
+            Poly.matrixPointwiseMontgomery(w1, ws.mat, z, k, l);
+            Poly.reduce(w1, 0, k);
+            Poly.invnttTomontVec(w1, 0, k);
+            Poly.freeze(w1, 0, k);
+            Poly.decompose(w1, w0, 0, k, p.gamma2);
+
+            // c~ = H(mu || w1Encode(w1))
+            packW1(p, ws.w1Packed, w1);
+            h.reset();
+            h.absorb(ws.mu, 0, MLDSAParams.CRHBYTES);
+            h.absorb(ws.w1Packed, 0, k * p.polyW1PackedBytes);
+            h.squeeze(ws.ctilde, 0, p.ctildeBytes);
+
+            sampleInBall(p, ws, cp, ws.ctilde);
+            Poly.ntt(cp, 0);
+
+            // z = y + c * s1
+            for (int i = 0; i < l; i++) {
+                Poly.pointwiseMontgomery(z, i * N, cp, 0, ws.s1, i * N);
+            }
+            Poly.invnttTomontVec(z, 0, l);
+            Poly.add(z, 0, y, 0, l);
+            Poly.center(z, 0, l);
+            if (Poly.exceedsNorm(z, 0, l, p.gamma1 - p.beta)) {
+                continue;
+            }
+
+            // r0 = w0 - c * s2
+            for (int i = 0; i < k; i++) {
+                Poly.pointwiseMontgomery(hint, i * N, cp, 0, ws.s2, i * N);
+            }
+            Poly.invnttTomontVec(hint, 0, k);
+            Poly.sub(w0, 0, hint, 0, k);
+            Poly.center(w0, 0, k);
+            if (Poly.exceedsNorm(w0, 0, k, p.gamma2 - p.beta)) {
+                continue;
+            }
+
+            // c * t0
+            for (int i = 0; i < k; i++) {
+                Poly.pointwiseMontgomery(hint, i * N, cp, 0, ws.t0, i * N);
+            }
+            Poly.invnttTomontVec(hint, 0, k);
+            Poly.center(hint, 0, k);
+            if (Poly.exceedsNorm(hint, 0, k, p.gamma2)) {
+                continue;
+            }
+
+            Poly.add(w0, 0, hint, 0, k);
+            if (Poly.makeHint(hint, w0, w1, 0, k, p.gamma2) > p.omega) {
+                continue;
+            }
+
+            packSignature(p, sig, ws.ctilde, z, hint);
+            return;
+        }
+    }
+
+    /**
+     * ML-DSA.Verify_internal (FIPS 204, Algorithm 8) on a precomputed mu
+     */
+    private static boolean verifyInternal(MLDSAParams p, Workspace ws, byte[] sig, byte[] pk) {
+        int k = p.k;
+        int l = p.l;
+        int[] z = ws.z;
+        int[] t1 = ws.t1;
+        int[] w1 = ws.w1;
+        int[] hint = ws.h;
+        int[] cp = ws.cp;
+
+        if (!unpackSignature(p, sig, z, hint)) {
+            return false;
+        }
+        if (Poly.exceedsNorm(z, 0, l, p.gamma1 - p.beta)) {
+            return false;
+        }
+        for (int i = 0; i < k; i++) {
+            Poly.unpack(t1, i * N, pk, MLDSAParams.SEEDBYTES + i * MLDSAParams.POLYT1_PACKEDBYTES, 10, 0);
+        }
+
+        sampleInBall(p, ws, cp, sig);
+        expandMatrix(p, ws, pk, 0);
+
+        // w'approx = NTT^-1(A * NTT(z) - NTT(c) * NTT(t1 * 2^d))
+        Poly.nttVec(z, 0, l);
+        Poly.matrixPointwiseMontgomery(w1, ws.mat, z, k, l);
+
+        Poly.ntt(cp, 0);
+        Poly.shiftLeft(t1, 0, k);
+        Poly.nttVec(t1, 0, k);
+        for (int i = 0; i < k; i++) {
+            Poly.pointwiseMontgomery(t1, i * N, cp, 0, t1, i * N);
+        }
+
+        Poly.sub(w1, 0, t1, 0, k);
+        Poly.reduce(w1, 0, k);
+        Poly.invnttTomontVec(w1, 0, k);
+        Poly.freeze(w1, 0, k);
+        Poly.useHint(w1, hint, 0, k, p.gamma2);
+
+        packW1(p, ws.w1Packed, w1);
+        Keccak h = ws.shake256;
+        h.reset();
+        h.absorb(ws.mu, 0, MLDSAParams.CRHBYTES);
+        h.absorb(ws.w1Packed, 0, k * p.polyW1PackedBytes);
+        h.squeeze(ws.ctilde, 0, p.ctildeBytes);
+
+        int diff = 0;
+        for (int i = 0; i < p.ctildeBytes; i++) {
+            diff |= ws.ctilde[i] ^ sig[i];
+        }
+        return diff == 0;
+    }
+
+    /**
+     * ExpandA: A[i][j] = RejNTTPoly(rho || j || i)
+     */
+    private static void expandMatrix(MLDSAParams p, Workspace ws, byte[] rho, int rhoOff) {
+        for (int i = 0; i < p.k; i++) {
+            for (int j = 0; j < p.l; j++) {
+                sampleUniform(ws, ws.mat, (i * p.l + j) * N, rho, rhoOff, (i << 8) + j);
+            }
+        }
+    }
+
+    private static void sampleUniform(Workspace ws, int[] a, int off, byte[] rho, int rhoOff, int nonce) {
+        Keccak x = ws.shake128;
+        x.reset();
+        x.absorb(rho, rhoOff, MLDSAParams.SEEDBYTES);
+        x.absorb((byte) nonce);
+        x.absorb((byte) (nonce >>> 8));
+
+        byte[] buf = ws.buf;
+        int ctr = 0;
+        while (ctr < N) {
+            x.squeeze(buf, 0, Keccak.SHAKE128_RATE);
+            for (int pos = 0; pos < Keccak.SHAKE128_RATE && ctr < N; pos += 3) {
+                int t = (buf[pos] & 0xFF) | (buf[pos + 1] & 0xFF) << 8 | (buf[pos + 2] & 0x7F) << 16;
+                if (t < Poly.Q) {
+                    a[off + ctr++] = t;
+                }
+            }
+        }
+    }
+
+    private static void sampleEta(MLDSAParams p, Workspace ws, int[] a, int off, byte[] seed, int seedOff, int nonce) {
+        Keccak h = ws.shake256;
+        h.reset();
+        h.absorb(seed, seedOff, MLDSAParams.CRHBYTES);
+        h.absorb((byte) nonce);
+        h.absorb((byte) (nonce >>> 8));
+
+        byte[] buf = ws.buf;
+        int ctr = 0;
+        while (ctr < N) {
+            h.squeeze(buf, 0, Keccak.SHAKE256_RATE);
+            for (int pos = 0; pos < Keccak.SHAKE256_RATE && ctr < N; pos++) {
+                int t0 = buf[pos] & 0x0F;
+                int t1 = (buf[pos] & 0xFF) >>> 4;
+                if (p.eta == 2) {
+                    if (t0 < 15) {
+                        t0 = t0 - ((205 * t0) >>> 10) * 5;
+                        a[off + ctr++] = 2 - t0;
+                    }
+                    if (t1 < 15 && ctr < N) {
+                        t1 = t1 - ((205 * t1) >>> 10) * 5;
+                        a[off + ctr++] = 2 - t1;
+                    }
+                } else {
+                    if (t0 < 9) {
+                        a[off + ctr++] = 4 - t0;
+                    }
+                    if (t1 < 9 && ctr < N) {
+                        a[off + ctr++] = 4 - t1;
+                    }
+                }
+            }
+        }
+    }
+
+    private static void sampleGamma1(MLDSAParams p, Workspace ws, int[] a, int off, byte[] seed, int nonce) {
+        Keccak h = ws.shake256;
+        h.reset();
+        h.absorb(seed, 0, MLDSAParams.CRHBYTES);
+        h.absorb((byte) nonce);
+        h.absorb((byte) (nonce >>> 8));
+        h.squeeze(ws.zBuf, 0, p.polyZPackedBytes);
+        Poly.unpack(a, off, ws.zBuf, 0, p.gamma1Bits, p.gamma1);
+    }
+
+    /**
+     * SampleInBall (FIPS 204, Algorithm 29) from the first ctildeBytes of seed
+     */
+    private static void sampleInBall(MLDSAParams p, Workspace ws, int[] c, byte[] seed) {
+        Keccak h = ws.shake256;
+        h.reset();
+        h.absorb(seed, 0, p.ctildeBytes);
+
+        byte[] buf = ws.buf;
+        h.squeeze(buf, 0, Keccak.SHAKE256_RATE);
+        long signs = 0;
+        for (int i = 0; i < 8; i++) {
+            signs |= (buf[i] & 0xFFL) << (8 * i);
+        }
+        int pos = 8;
+
+        Arrays.fill(c, 0);
+        for (int i = N - p.tau; i < N; i++) {
+            int b;
+            do {
+                if (pos >= Keccak.SHAKE256_RATE) {
+                    h.squeeze(buf, 0, Keccak.SHAKE256_RATE);
+                    pos = 0;
+                }
+                b = buf[pos++] & 0xFF;
+            } while (b > i);
+            c[i] = c[b];
+            c[b] = 1 - 2 * (int) (signs & 1);
+            signs >>>= 1;
+        }
+    }
+
+    private static void packW1(MLDSAParams p, byte[] out, int[] w1) {
+        for (int i = 0; i < p.k; i++) {
+            Poly.pack(out, i * p.polyW1PackedBytes, w1, i * N, p.w1Bits, 0);
+        }
+    }
+
+    private static void packSignature(MLDSAParams p, byte[] sig, byte[] ctilde, int[] z, int[] hint) {
+        System.arraycopy(ctilde, 0, sig, 0, p.ctildeBytes);
+        int off = p.ctildeBytes;
+        for (int i = 0; i < p.l; i++) {
+            Poly.pack(sig, off, z, i * N, p.gamma1Bits, p.gamma1);
+            off += p.polyZPackedBytes;
+        }
+
+        Arrays.fill(sig, off, off + p.omega + p.k, (byte) 0);
+        int idx = 0;
+        for (int i = 0; i < p.k; i++) {
+            for (int j = 0; j < N; j++) {
+                if (hint[i * N + j] != 0) {
+                    sig[off + idx++] = (byte) j;
+                }
+            }
+            sig[off + p.omega + i] = (byte) idx;
+        }
+    }
+
+    private static boolean unpackSignature(MLDSAParams p, byte[] sig, int[] z, int[] hint) {
+        int off = p.ctildeBytes;
+        for (int i = 0; i < p.l; i++) {
+            Poly.unpack(z, i * N, sig, off, p.gamma1Bits, p.gamma1);
+            off += p.polyZPackedBytes;
+        }
+
+        // Hint indices must be strictly increasing per polynomial, with zero padding
+        Arrays.fill(hint, 0, p.k * N, 0);
+        int idx = 0;
+        for (int i = 0; i < p.k; i++) {
+            int end = sig[off + p.omega + i] & 0xFF;
+            if (end < idx || end > p.omega) {
+                return false;
+            }
+            for (int j = idx; j < end; j++) {
+                int position = sig[off + j] & 0xFF;
+                if (j > idx && position <= (sig[off + j - 1] & 0xFF)) {
+                    return false;
+                }
+                hint[i * N + position] = 1;
+            }
+            idx = end;
+        }
+        for (int j = idx; j < p.omega; j++) {
+            if (sig[off + j] != 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static Workspace workspace(MLDSAParams p) {
+        Workspace[] workspaces = WORKSPACES.get();
+        int index = p.level.ordinal();
+        Workspace ws = workspaces[index];
+        if (ws == null) {
+            ws = new Workspace(p);
+            workspaces[index] = ws;
+        }
+        return ws;
+    }
+
+    /**
+     * SHAKE256 on the pure-Java Keccak sponge
+     */
+    private static final class KeccakShake256 extends Shake256 {
+        private final Keccak keccak = Keccak.shake256();
+
+        @Override
+        public void update(byte b) {
+            keccak.absorb(b);
+        }
+
+        @Override
+        public void update(byte[] input, int offset, int length) {
+            if (offset < 0 || length < 0 || offset > input.length - length) {
+                throw new ArrayIndexOutOfBoundsException();
+            }
+            keccak.absorb(input, offset, length);
+        }
+
+        @Override
+        public void squeeze(byte[] output, int offset, int length) {
+            if (offset < 0 || length < 0 || offset > output.length - length) {
+                throw new ArrayIndexOutOfBoundsException();
+            }
+            keccak.squeeze(output, offset, length);
+        }
+
+        @Override
+        public void reset() {
+            keccak.reset();
+        }
+    }
+
+    /**
+     * Per-thread scratch space for one parameter set
+     */
+    private static final class Workspace {
+        final Keccak shake128 = Keccak.shake128();
+        final Keccak shake256 = Keccak.shake256();
+
+        final int[] mat;
+        final int[] s1;
+        final int[] s2;
+        final int[] t0;
+        final int[] t1;
+        final int[] y;
+        final int[] z;
+        final int[] w0;
+        final int[] w1;
+        final int[] h;
+        final int[] cp = new int[N];
+
+        final byte[] buf = new byte[Keccak.SHAKE128_RATE];
+        final byte[] zBuf;
+        final byte[] w1Packed;
+        final byte[] seedbuf = new byte[2 * MLDSAParams.SEEDBYTES + MLDSAParams.CRHBYTES];
+        final byte[] tr = new byte[MLDSAParams.TRBYTES];
+        final byte[] mu = new byte[MLDSAParams.CRHBYTES];
+        final byte[] rnd = new byte[MLDSAParams.RNDBYTES];
+        final byte[] rhoprime = new byte[MLDSAParams.CRHBYTES];
+        final byte[] ctilde = new byte[64];
+
+        Workspace(MLDSAParams p) {
+            mat = new int[p.k * p.l * N];
+            s1 = new int[p.l * N];
+            s2 = new int[p.k * N];
+            t0 = new int[p.k * N];
+            t1 = new int[p.k * N];
+            y = new int[p.l * N];
+            z = new int[p.l * N];
+            w0 = new int[p.k * N];
+            w1 = new int[p.k * N];
+            h = new int[p.k * N];
+            zBuf = new byte[p.polyZPackedBytes];
+            w1Packed = new byte[p.k * p.polyW1PackedBytes];
+        }
+
+        /**
+         * Wipe secret-dependent state
+         */
+        void clear() {
+            Arrays.fill(s1, 0);
+            Arrays.fill(s2, 0);
+            Arrays.fill(t0, 0);
+            Arrays.fill(y, 0);
+            Arrays.fill(w0, 0);
+            Arrays.fill(seedbuf, (byte) 0);
+            Arrays.fill(rnd, (byte) 0);
+            Arrays.fill(rhoprime, (byte) 0);
+            Arrays.fill(zBuf, (byte) 0);
+            shake256.reset();
+        }
+    }
+}
@@ -0,0 +1,266 @@
+package com.mldsa;
+
+/**
+ * Keccak-f[1600] sponge with SHAKE128/SHAKE256 padding (FIPS 202).
+ *
+ * The permutation keeps the 25 lanes in local variables so the JIT can hold them
+ * in registers; absorbing and squeezing never allocate. Instances are reusable via
+ * {@link #reset()} and are not thread-safe.
+ */
+final class Keccak {
+
+    static final int SHAKE128_RATE = 168;
+    static final int SHAKE256_RATE = 136;
+
+    private static final byte SHAKE_DOMAIN = 0x1F;
+
+    private static final long[] ROUND_CONSTANTS = {
+            0x0000000000000001L, 0x0000000000008082L, 0x800000000000808AL, 0x8000000080008000L,
+            0x000000000000808BL, 0x0000000080000001L, 0x8000000080008081L, 0x8000000000008009L,
+            0x000000000000008AL, 0x0000000000000088L, 0x0000000080008009L, 0x000000008000000AL,
+            0x000000008000808BL, 0x800000000000008BL, 0x8000000000008089L, 0x8000000000008003L,
+            0x8000000000008002L, 0x8000000000000080L, 0x000000000000800AL, 0x800000008000000AL,
+            0x8000000080008081L, 0x8000000000008080L, 0x0000000080000001L, 0x8000000080008008L
+    };
+
+    private final long[] state = new long[25];
+    private final int rate;
+    private int position;
+    private boolean squeezing;
+
+    Keccak(int rate) {
+        this.rate = rate;
+    }
+
+    static Keccak shake128() {
+        return new Keccak(SHAKE128_RATE);
+    }
+
+    static Keccak shake256() {
+        return new Keccak(SHAKE256_RATE);
+    }
+
+    int rate() {
+        return rate;
+    }
+
+    void reset() {
+        for (int i = 0; i < 25; i++) {
+            state[i] = 0;
+        }
+        position = 0;
+        squeezing = false;
+    }
+
+    void absorb(byte b) {
+        long[] s = state;
+        s[position >>> 3] ^= (b & 0xFFL) << ((position & 7) << 3);
+        if (++position == rate) {
+            permute(s);
+            position = 0;
+        }
+    }
+
+    void absorb(byte[] in, int off, int len) {
+        long[] s = state;
+        int pos = position;
+        // Byte-wise until lane aligned
+        while (len > 0 && (pos & 7) != 0) {
+            s[pos >>> 3] ^= (in[off++] & 0xFFL) << ((pos & 7) << 3);
+            len--;
+            if (++pos == rate) {
+                permute(s);
+                pos = 0;
+            }
+        }
+        // Whole lanes
+        while (len >= 8) {
+            s[pos >>> 3] ^= littleEndianLong(in, off);
+            off += 8;
+            len -= 8;
+            pos += 8;
+            if (pos == rate) {
+                permute(s);
+                pos = 0;
+            }
+        }
+        // Tail
+        while (len > 0) {
+            s[pos >>> 3] ^= (in[off++] & 0xFFL) << ((pos & 7) << 3);
+            len--;
+            if (++pos == rate) {
+                permute(s);
+                pos = 0;
+            }
+        }
+        position = pos;
+    }
+
+    void absorb(byte[] in) {
+        absorb(in, 0, in.length);
+    }
+
+    /**
+     * Apply SHAKE padding and switch to squeezing
+     */
+    void finish() {
+        long[] s = state;
+        s[position >>> 3] ^= (SHAKE_DOMAIN & 0xFFL) << ((position & 7) << 3);
+        s[(rate - 1) >>> 3] ^= 0x80L << (((rate - 1) & 7) << 3);
+        permute(s);
+        position = 0;
+        squeezing = true;
+    }
+
+    void squeeze(byte[] out, int off, int len) {
+        if (!squeezing) {
+            finish();
+        }
+        long[] s = state;
+        int pos = position;
+        while (len > 0) {
+            if (pos == rate) {
+                permute(s);
+                pos = 0;
+            }
+            out[off++] = (byte) (s[pos >>> 3] >>> ((pos & 7) << 3));
+            pos++;
+            len--;
+        }
+        position = pos;
+    }
+
+    private static long littleEndianLong(byte[] in, int off) {
+        return (in[off] & 0xFFL)
+                | (in[off + 1] & 0xFFL) << 8
+                | (in[off + 2] & 0xFFL) << 16
+                | (in[off + 3] & 0xFFL) << 24
+                | (in[off + 4] & 0xFFL) << 32
+                | (in[off + 5] & 0xFFL) << 40
+                | (in[off + 6] & 0xFFL) << 48
+                | (in[off + 7] & 0xFFL) << 56;
+    }
+
+    private static void permute(long[] s) {
+        long a00 = s[0];
+        long a01 = s[1];
+        long a02 = s[2];
+        long a03 = s[3];
+        long a04 = s[4];
+        long a05 = s[5];
+        long a06 = s[6];
+        long a07 = s[7];
+        long a08 = s[8];
+        long a09 = s[9];
+        long a10 = s[10];
+        long a11 = s[11];
+        long a12 = s[12];
+        long a13 = s[13];
+        long a14 = s[14];
+        long a15 = s[15];
+        long a16 = s[16];
+        long a17 = s[17];
+        long a18 = s[18];
+        long a19 = s[19];
+        long a20 = s[20];
+        long a21 = s[21];
+        long a22 = s[22];
+        long a23 = s[23];
+        long a24 = s[24];
+
+        for (int round = 0; round < 24; round++) {
+            long c0 = a00 ^ a05 ^ a10 ^ a15 ^ a20;
+            long c1 = a01 ^ a06 ^ a11 ^ a16 ^ a21;
+            long c2 = a02 ^ a07 ^ a12 ^ a17 ^ a22;
+            long c3 = a03 ^ a08 ^ a13 ^ a18 ^ a23;
+            long c4 = a04 ^ a09 ^ a14 ^ a19 ^ a24;
+            long d0 = c4 ^ Long.rotateLeft(c1, 1);
+            long d1 = c0 ^ Long.rotateLeft(c2, 1);
+            long d2 = c1 ^ Long.rotateLeft(c3, 1);
+            long d3 = c2 ^ Long.rotateLeft(c4, 1);
+            long d4 = c3 ^ Long.rotateLeft(c0, 1);
+            a00 ^= d0; a01 ^= d1; a02 ^= d2; a03 ^= d3; a04 ^= d4;
+            a05 ^= d0; a06 ^= d1; a07 ^= d2; a08 ^= d3; a09 ^= d4;
+            a10 ^= d0; a11 ^= d1; a12 ^= d2; a13 ^= d3; a14 ^= d4;
+            a15 ^= d0; a16 ^= d1; a17 ^= d2; a18 ^= d3; a19 ^= d4;
+            a20 ^= d0; a21 ^= d1; a22 ^= d2; a23 ^= d3; a24 ^= d4;
+            long b00 = a00;
+            long b01 = Long.rotateLeft(a06, 44);
+            long b02 = Long.rotateLeft(a12, 43);
+            long b03 = Long.rotateLeft(a18, 21);
+            long b04 = Long.rotateLeft(a24, 14);
+            long b05 = Long.rotateLeft(a03, 28);
+            long b06 = Long.rotateLeft(a09, 20);
+            long b07 = Long.rotateLeft(a10, 3);
+            long b08 = Long.rotateLeft(a16, 45);
+            long b09 = Long.rotateLeft(a22, 61);
+            long b10 = Long.rotateLeft(a01, 1);
+            long b11 = Long.rotateLeft(a07, 6);
+            long b12 = Long.rotateLeft(a13, 25);
+            long b13 = Long.rotateLeft(a19, 8);
+            long b14 = Long.rotateLeft(a20, 18);
+            long b15 = Long.rotateLeft(a04, 27);
+            long b16 = Long.rotateLeft(a05, 36);
+            long b17 = Long.rotateLeft(a11, 10);
+            long b18 = Long.rotateLeft(a17, 15);
+            long b19 = Long.rotateLeft(a23, 56);
+            long b20 = Long.rotateLeft(a02, 62);
+            long b21 = Long.rotateLeft(a08, 55);
+            long b22 = Long.rotateLeft(a14, 39);
+            long b23 = Long.rotateLeft(a15, 41);
+            long b24 = Long.rotateLeft(a21, 2);
+            a00 = b00 ^ (~b01 & b02);
+            a01 = b01 ^ (~b02 & b03);
+            a02 = b02 ^ (~b03 & b04);
+            a03 = b03 ^ (~b04 & b00);
+            a04 = b04 ^ (~b00 & b01);
+            a05 = b05 ^ (~b06 & b07);
+            a06 = b06 ^ (~b07 & b08);
+            a07 = b07 ^ (~b08 & b09);
+            a08 = b08 ^ (~b09 & b05);
+            a09 = b09 ^ (~b05 & b06);
+            a10 = b10 ^ (~b11 & b12);
+            a11 = b11 ^ (~b12 & b13);
+            a12 = b12 ^ (~b13 & b14);
+            a13 = b13 ^ (~b14 & b10);
+            a14 = b14 ^ (~b10 & b11);
+            a15 = b15 ^ (~b16 & b17);
+            a16 = b16 ^ (~b17 & b18);
+            a17 = b17 ^ (~b18 & b19);
+            a18 = b18 ^ (~b19 & b15);
+            a19 = b19 ^ (~b15 & b16);
+            a20 = b20 ^ (~b21 & b22);
+            a21 = b21 ^ (~b22 & b23);
+            a22 = b22 ^ (~b23 & b24);
+            a23 = b23 ^ (~b24 & b20);
+            a24 = b24 ^ (~b20 & b21);
+            a00 ^= ROUND_CONSTANTS[round];
+        }
+
+        s[0] = a00;
+        s[1] = a01;
+        s[2] = a02;
+        s[3] = a03;
+        s[4] = a04;
+        s[5] = a05;
+        s[6] = a06;
+        s[7] = a07;
+        s[8] = a08;
+        s[9] = a09;
+        s[10] = a10;
+        s[11] = a11;
+        s[12] = a12;
+        s[13] = a13;
+        s[14] = a14;
+        s[15] = a15;
+        s[16] = a16;
+        s[17] = a17;
+        s[18] = a18;
+        s[19] = a19;
+        s[20] = a20;
+        s[21] = a21;
+        s[22] = a22;
+        s[23] = a23;
+        s[24] = a24;
+    }
+}
@@ -1,9 +1,33 @@
 package com.mldsa;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.Arrays;
+
+/**
+ * ML-DSA (FIPS 204) signatures for ML-DSA-44, ML-DSA-65 and ML-DSA-87.
+ *
+ * Each parameter set lives in its own native library (libmldsa44-jni.so, ...),
+ * loaded lazily on the first crypto operation for that level. Size queries are
+ * answered from Java constants and never load native code.
+ *
+ * Operations run on an {@link MLDSAEngine}. By default the native engine is used
+ * for every level whose library can be loaded, with the pure-Java engine as the
+ * fallback. The choice can be forced with the {@code com.mldsa.engine} system
+ * property ("native", "java" or "auto") or with {@link #setEngine(MLDSAEngine)}.
+ */
 public class MLDSA {
 
-    static {
-        System.loadLibrary("mldsa-jni");
-    }
+    /**
+     * System property selecting the engine: "native", "java" or "auto" (default)
+     */
+    public static final String ENGINE_PROPERTY = "com.mldsa.engine";
+
+    private static final MLDSAEngine NATIVE_ENGINE = new NativeMLDSAEngine();
+    private static final MLDSAEngine JAVA_ENGINE = new JavaMLDSAEngine();
+
+    private static volatile MLDSAEngine engine;
 
     /**
      * Constants for ML-DSA
@@ -11,21 +35,51 @@ public class MLDSA {
     public static final int SEEDBYTES = 32;
     public static final int MAX_CONTEXT_LENGTH = 255;
 
+    public static final int MLDSA44_PUBLICKEYBYTES = 1312;
+    public static final int MLDSA44_SECRETKEYBYTES = 2560;
+    public static final int MLDSA44_BYTES = 2420;
+
+    public static final int MLDSA65_PUBLICKEYBYTES = 1952;
+    public static final int MLDSA65_SECRETKEYBYTES = 4032;
+    public static final int MLDSA65_BYTES = 3309;
+
+    public static final int MLDSA87_PUBLICKEYBYTES = 2592;
+    public static final int MLDSA87_SECRETKEYBYTES = 4896;
+    public static final int MLDSA87_BYTES = 4627;
+
     public enum SecurityLevel {
-        LEVEL_44(44),
-        LEVEL_65(65),
-        LEVEL_87(87);
+        LEVEL_44(44, MLDSA44_PUBLICKEYBYTES, MLDSA44_SECRETKEYBYTES, MLDSA44_BYTES),
+        LEVEL_65(65, MLDSA65_PUBLICKEYBYTES, MLDSA65_SECRETKEYBYTES, MLDSA65_BYTES),
+        LEVEL_87(87, MLDSA87_PUBLICKEYBYTES, MLDSA87_SECRETKEYBYTES, MLDSA87_BYTES);
 
         private final int value;
+        private final int publicKeySize;
+        private final int secretKeySize;
+        private final int signatureSize;
 
-        SecurityLevel(int value) {
+        SecurityLevel(int value, int publicKeySize, int secretKeySize, int signatureSize) {
             this.value = value;
+            this.publicKeySize = publicKeySize;
+            this.secretKeySize = secretKeySize;
+            this.signatureSize = signatureSize;
         }
 
         public int getValue() {
             return value;
         }
 
+        public int getPublicKeySize() {
+            return publicKeySize;
+        }
+
+        public int getSecretKeySize() {
+            return secretKeySize;
+        }
+
+        public int getSignatureSize() {
+            return signatureSize;
+        }
+
         public static SecurityLevel fromValue(int value) {
             for (SecurityLevel level : values()) {
                 if (level.value == value) {
@@ -36,6 +90,16 @@ public class MLDSA {
         }
     }
 
+    /**
+     * Signing variants defined by FIPS 204
+     */
+    public enum SigningMode {
+        /** Hedged signing: fresh randomness from the OS RNG for every signature (default) */
+        HEDGED,
+        /** Deterministic signing (rnd = 0): the same key and message always give the same signature */
+        DETERMINISTIC
+    }
+
     public static class KeyPair {
         private final byte[] publicKey;
         private final byte[] secretKey;
@@ -73,20 +137,95 @@ public class MLDSA {
         }
     }
 
+    /**
+     * Force all operations onto the given engine
+     *
+     * @param newEngine The engine to use, or null to restore automatic selection
+     */
+    public static void setEngine(MLDSAEngine newEngine) {
+        engine = newEngine;
+    }
+
+    /**
+     * Get the engine that will serve operations for the given security level
+     *
+     * @throws MLDSAException if an engine is forced (setEngine or the system property)
+     *                        but cannot serve this level, e.g. its native library failed to load
+     */
+    public static MLDSAEngine getEngine(SecurityLevel level) throws MLDSAException {
+        MLDSAEngine selected = engine;
+        if (selected == null) {
+            String property = System.getProperty(ENGINE_PROPERTY, "auto");
+            if (JavaMLDSAEngine.NAME.equals(property)) {
+                selected = JAVA_ENGINE;
+            } else if (NativeMLDSAEngine.NAME.equals(property)) {
+                selected = NATIVE_ENGINE;
+            } else {
+                return NATIVE_ENGINE.isAvailable(level) ? NATIVE_ENGINE : JAVA_ENGINE;
+            }
+        }
+
+        if (!selected.isAvailable(level)) {
+            String reason = selected == NATIVE_ENGINE
+                    ? ": libmldsa" + level.getValue() + "-jni could not be loaded" : "";
+            throw new MLDSAException("ML-DSA-" + level.getValue() + " is not available on the forced \""
+                    + selected.getName() + "\" engine" + reason, -100);
+        }
+        return selected;
+    }
+
+    /**
+     * The JNI engine backed by the per-level native libraries
+     */
+    public static MLDSAEngine nativeEngine() {
+        return NATIVE_ENGINE;
+    }
+
+    /**
+     * The pure-Java engine
+     */
+    public static MLDSAEngine javaEngine() {
+        return JAVA_ENGINE;
+    }
+
     /**
      * Get the public key size in bytes for a given security level
+     *
+     * @return The size, or -1 for an unknown level
      */
-    public static native int getPublicKeySize(int level);
+    public static int getPublicKeySize(int level) {
+        SecurityLevel securityLevel = levelOrNull(level);
+        return securityLevel != null ? securityLevel.getPublicKeySize() : -1;
+    }
 
     /**
      * Get the secret key size in bytes for a given security level
+     *
+     * @return The size, or -1 for an unknown level
      */
-    public static native int getSecretKeySize(int level);
+    public static int getSecretKeySize(int level) {
+        SecurityLevel securityLevel = levelOrNull(level);
+        return securityLevel != null ? securityLevel.getSecretKeySize() : -1;
+    }
 
     /**
      * Get the signature size in bytes for a given security level
+     *
+     * @return The size, or -1 for an unknown level
      */
-    public static native int getSignatureSize(int level);
+    public static int getSignatureSize(int level) {
+        SecurityLevel securityLevel = levelOrNull(level);
+        return securityLevel != null ? securityLevel.getSignatureSize() : -1;
+    }
+
+    private static SecurityLevel levelOrNull(int level) {
+        for (SecurityLevel securityLevel : SecurityLevel.values()) {
+            if (securityLevel.getValue() == level) {
+                return securityLevel;
+            }
+        }
+        return null;
+    }
 
     /**
      * Generate a new keypair for the specified security level
@@ -96,14 +235,10 @@ public class MLDSA {
      * @throws MLDSAException if key generation fails
      */
     public static KeyPair generateKeyPair(SecurityLevel level) throws MLDSAException {
-        int levelValue = level.getValue();
-        int pkSize = getPublicKeySize(levelValue);
-        int skSize = getSecretKeySize(levelValue);
-
-        byte[] publicKey = new byte[pkSize];
-        byte[] secretKey = new byte[skSize];
+        byte[] publicKey = new byte[level.getPublicKeySize()];
+        byte[] secretKey = new byte[level.getSecretKeySize()];
 
-        int result = nativeGenerateKeyPair(levelValue, publicKey, secretKey);
+        int result = getEngine(level).generateKeyPair(level, publicKey, secretKey);
         if (result != 0) {
             throw new MLDSAException("Key generation failed with code: " + result, result);
         }
@@ -124,14 +259,10 @@ public class MLDSA {
             throw new MLDSAException("Seed must be exactly 32 bytes", -100);
         }
 
-        int levelValue = level.getValue();
-        int pkSize = getPublicKeySize(levelValue);
-        int skSize = getSecretKeySize(levelValue);
+        byte[] publicKey = new byte[level.getPublicKeySize()];
+        byte[] secretKey = new byte[level.getSecretKeySize()];
 
-        byte[] publicKey = new byte[pkSize];
-        byte[] secretKey = new byte[skSize];
-
-        int result = nativeGenerateKeyPairWithSeed(levelValue, seed, publicKey, secretKey);
+        int result = getEngine(level).generateKeyPairWithSeed(level, seed, publicKey, secretKey);
         if (result != 0) {
             throw new MLDSAException("Key generation with seed failed with code: " + result, result);
         }
@@ -164,17 +295,36 @@ public class MLDSA {
      */
     public static byte[] sign(byte[] message, byte[] secretKey, byte[] context, SecurityLevel level)
             throws MLDSAException {
+        return sign(message, secretKey, context, level, SigningMode.HEDGED);
+    }
+
+    /**
+     * Sign a message with a secret key using the given signing mode
+     *
+     * @param message The message to sign
+     * @param secretKey The secret key
+     * @param context Optional context string (can be null, max 255 bytes)
+     * @param level The security level
+     * @param mode HEDGED (randomized) or DETERMINISTIC (no RNG call)
+     * @return The signature
+     * @throws MLDSAException if signing fails
+     */
+    public static byte[] sign(byte[] message, byte[] secretKey, byte[] context, SecurityLevel level,
+                              SigningMode mode) throws MLDSAException {
         if (message == null || secretKey == null) {
             throw new MLDSAException("Message and secret key are required", -100);
         }
+        if (mode == null) {
+            throw new MLDSAException("Signing mode is required", -100);
+        }
 
         validateContext(context);
 
-        int levelValue = level.getValue();
-        int sigSize = getSignatureSize(levelValue);
+        int sigSize = level.getSignatureSize();
         byte[] signature = new byte[sigSize];
 
-        int result = nativeSign(levelValue, message, secretKey, context, signature);
+        int result = getEngine(level).sign(level, message, secretKey, context,
+                mode == SigningMode.DETERMINISTIC, signature);
         if (result < 0) {
             throw new MLDSAException("Signing failed with code: " + result, result);
         }
@@ -189,6 +339,44 @@ public class MLDSA {
         return signature;
     }
 
+    /**
+     * Sign a message deterministically, returning a memoized signature when the same
+     * (key, context, message) was signed before
+     *
+     * @param message The message to sign
+     * @param secretKey The secret key
+     * @param context Optional context string (can be null, max 255 bytes)
+     * @param level The security level
+     * @param mode Must be DETERMINISTIC; hedged signatures are never memoized
+     * @param cache The signature memo to consult and fill
+     * @return The signature
+     * @throws MLDSAException if signing fails or mode is not DETERMINISTIC
+     */
+    public static byte[] sign(byte[] message, byte[] secretKey, byte[] context, SecurityLevel level,
+                              SigningMode mode, SignatureCache cache) throws MLDSAException {
+        if (cache == null) {
+            return sign(message, secretKey, context, level, mode);
+        }
+        if (mode != SigningMode.DETERMINISTIC) {
+            throw new MLDSAException("Signature cache requires DETERMINISTIC signing mode", -100);
+        }
+        if (message == null || secretKey == null) {
+            throw new MLDSAException("Message and secret key are required", -100);
+        }
+
+        validateContext(context);
+
+        SignatureCache.Key key = SignatureCache.key(level, secretKey, context, message);
+        byte[] cached = cache.get(key);
+        if (cached != null) {
+            return cached;
+        }
+
+        byte[] signature = sign(message, secretKey, context, level, mode);
+        cache.put(key, signature);
+        return signature;
+    }
+
     /**
      * Sign a message without context
      */
@@ -196,6 +384,48 @@ public class MLDSA {
             throws MLDSAException {
         return sign(message, secretKey, null, level);
     }
+
+    /**
+     * Sign a large file through a parallel tree digest. The 64-byte root of
+     * {@code digest} over the file is signed as a pre-hash (HashML-DSA style,
+     * M' = 1 || ctxlen || ctx || digest.identifier() || root), so the signature
+     * never verifies as a pure ML-DSA signature over the root, or vice versa.
+     *
+     * @param input The file to sign, read with positional reads
+     * @param secretKey The secret key
+     * @param context Optional context string (can be null, max 255 bytes)
+     * @param level The security level
+     * @param digest The tree digest; verifiers must use the same chunk size
+     * @return The signature
+     * @throws MLDSAException if signing fails
+     * @throws IOException if the file cannot be read
+     */
+    public static byte[] sign(FileChannel input, byte[] secretKey, byte[] context, SecurityLevel level,
+                              TreeDigest digest) throws MLDSAException, IOException {
+        if (input == null || digest == null) {
+            throw new MLDSAException("Input and digest are required", -100);
+        }
+        validateContext(context);
+        validateKeyLength(secretKey, level.getSecretKeySize(), "Secret key");
+        return signTreeRoot(digest.digest(input, level), secretKey, context, level, digest);
+    }
+
+    /**
+     * Sign the concatenation of the remaining bytes of {@code input} through a
+     * parallel tree digest
+     *
+     * @see #sign(FileChannel, byte[], byte[], SecurityLevel, TreeDigest)
+     */
+    public static byte[] sign(ByteBuffer[] input, byte[] secretKey, byte[] context, SecurityLevel level,
+                              TreeDigest digest) throws MLDSAException {
+        if (input == null || digest == null) {
+            throw new MLDSAException("Input and digest are required", -100);
+        }
+        validateContext(context);
+        validateKeyLength(secretKey, level.getSecretKeySize(), "Secret key");
+        return signTreeRoot(digest.digest(input, level), secretKey, context, level, digest);
+    }
+
     /**
      * Verify a signature
      *
@@ -215,8 +445,7 @@ public class MLDSA {
 
         validateContext(context);
 
-        int levelValue = level.getValue();
-        int result = nativeVerify(levelValue, signature, message, publicKey, context);
+        int result = getEngine(level).verify(level, signature, message, publicKey, context);
 
         if (result == 0) {
             return true;
@@ -236,9 +465,102 @@ public class MLDSA {
         return verify(signature, message, publicKey, null, level);
     }
 
-    // Native methods
-    private static native int nativeGenerateKeyPair(int level, byte[] publicKey, byte[] secretKey);
-    private static native int nativeGenerateKeyPairWithSeed(int level, byte[] seed, byte[] publicKey, byte[] secretKey);
-    private static native int nativeSign(int level, byte[] message, byte[] secretKey, byte[] context, byte[] signature);
-    private static native int nativeVerify(int level, byte[] signature, byte[] message, byte[] publicKey, byte[] context);
+    /**
+     * Verify a signature made with {@link #sign(FileChannel, byte[], byte[], SecurityLevel, TreeDigest)}
+     *
+     * @param digest A tree digest with the chunk size used for signing
+     */
+    public static boolean verify(byte[] signature, FileChannel input, byte[] publicKey, byte[] context,
+                                 SecurityLevel level, TreeDigest digest) throws MLDSAException, IOException {
+        if (input == null || digest == null) {
+            throw new MLDSAException("Input and digest are required", -100);
+        }
+        validateContext(context);
+        validateKeyLength(publicKey, level.getPublicKeySize(), "Public key");
+        return verifyTreeRoot(signature, digest.digest(input, level), publicKey, context, level, digest);
+    }
+
+    /**
+     * Verify a signature made with {@link #sign(ByteBuffer[], byte[], byte[], SecurityLevel, TreeDigest)}
+     *
+     * @param digest A tree digest with the chunk size used for signing
+     */
+    public static boolean verify(byte[] signature, ByteBuffer[] input, byte[] publicKey, byte[] context,
+                                 SecurityLevel level, TreeDigest digest) throws MLDSAException {
+        if (input == null || digest == null) {
+            throw new MLDSAException("Input and digest are required", -100);
+        }
+        validateContext(context);
+        validateKeyLength(publicKey, level.getPublicKeySize(), "Public key");
+        return verifyTreeRoot(signature, digest.digest(input, level), publicKey, context, level, digest);
+    }
+
+    private static void validateKeyLength(byte[] key, int length, String name) throws MLDSAException {
+        if (key == null || key.length != length) {
+            throw new MLDSAException(name + " must be " + length + " bytes", -100);
+        }
+    }
+
+    private static byte[] signTreeRoot(byte[] root, byte[] secretKey, byte[] context, SecurityLevel level,
+                                       TreeDigest digest) throws MLDSAException {
+        MLDSAEngine selected = getEngine(level);
+
+        // tr = H(pk, 64) is stored in the expanded secret key
+        byte[] mu = preHashMu(selected.newShake256(level), secretKey, MLDSAPrivateKey.trOffset(),
+                context, digest, root);
+        byte[] signature = new byte[level.getSignatureSize()];
+        int result = selected.signMu(level, mu, secretKey, false, signature);
+        if (result < 0) {
+            throw new MLDSAException("Signing failed with code: " + result, result);
+        }
+        return result == signature.length ? signature : Arrays.copyOf(signature, result);
+    }
+
+    private static boolean verifyTreeRoot(byte[] signature, byte[] root, byte[] publicKey, byte[] context,
+                                          SecurityLevel level, TreeDigest digest) throws MLDSAException {
+        if (signature == null) {
+            throw new MLDSAException("Signature is required", -100);
+        }
+        if (signature.length != level.getSignatureSize()) {
+            return false;
+        }
+        MLDSAEngine selected = getEngine(level);
+
+        byte[] tr = new byte[MLDSAParams.TRBYTES];
+        Shake256 h = selected.newShake256(level);
+        h.update(publicKey, 0, publicKey.length);
+        h.squeeze(tr, 0, tr.length);
+
+        h.reset();
+        byte[] mu = preHashMu(h, tr, 0, context, digest, root);
+        int result = selected.verifyMu(level, signature, mu, publicKey);
+        if (result == 0) {
+            return true;
+        } else if (result == -1) {
+            return false;
+        } else {
+            throw new MLDSAException("Verification failed with code: " + result, result);
+        }
+    }
+
+    /**
+     * mu = H(tr || M', 64) with the pre-hash message M' = 1 || ctxlen || ctx || identifier || root
+     * (FIPS 204, Algorithm 4, with the tree digest in place of the hash function)
+     */
+    private static byte[] preHashMu(Shake256 h, byte[] tr, int trOffset, byte[] context, TreeDigest digest,
+                                    byte[] root) {
+        int contextLength = context != null ? context.length : 0;
+        h.update(tr, trOffset, MLDSAParams.TRBYTES);
+        h.update((byte) 1);
+        h.update((byte) contextLength);
+        if (contextLength > 0) {
+            h.update(context, 0, contextLength);
+        }
+        h.update(digest.identifier());
+        h.update(root);
+
+        byte[] mu = new byte[MLDSAParams.CRHBYTES];
+        h.squeeze(mu, 0, mu.length);
+        return mu;
+    }
 }
@@ -0,0 +1,45 @@
+package com.mldsa;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Native entry points for ML-DSA-65.
+ *
+ * The backing library (libmldsa65-jni.so) is loaded when this class is first
+ * initialized, i.e. on the first ML-DSA-65 operation, so applications only pay
+ * for the parameter sets they actually use. {@link #LOADED} reports whether the
+ * library could be loaded; calling a native method when it is false throws
+ * {@link UnsatisfiedLinkError}.
+ */
+final class MLDSA65Native {
+
+    static final boolean LOADED;
+
+    static {
+        boolean loaded;
+        try {
+            System.loadLibrary("mldsa65-jni");
+            loaded = true;
+        } catch (UnsatisfiedLinkError e) {
+            loaded = false;
+        }
+        LOADED = loaded;
+    }
+
+    private MLDSA65Native() {
+    }
+
+    static native int generateKeyPair(byte[] publicKey, byte[] secretKey);
+    static native int generateKeyPairWithSeed(byte[] seed, byte[] publicKey, byte[] secretKey);
+    static native int sign(byte[] message, byte[] secretKey, byte[] context, boolean deterministic, byte[] signature);
+    static native int verify(byte[] signature, byte[] message, byte[] publicKey, byte[] context);
+    static native int signMu(byte[] mu, byte[] secretKey, boolean deterministic, byte[] signature);
+    static native int verifyMu(byte[] signature, byte[] mu, byte[] publicKey);
+
+    static native int shake256StateBytes();
+    static native void shake256Init(byte[] state);
+    static native void shake256Absorb(byte[] state, byte[] input, int offset, int length);
+    static native void shake256AbsorbDirect(byte[] state, ByteBuffer input, int offset, int length);
+    static native void shake256Finalize(byte[] state);
+    static native void shake256Squeeze(byte[] state, byte[] output, int offset, int length);
+}
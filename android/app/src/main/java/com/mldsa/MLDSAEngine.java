@@ -0,0 +1,49 @@
+package com.mldsa;
+
+/**
+ * Service provider interface for ML-DSA implementations.
+ *
+ * Engines work on caller-allocated arrays sized from {@link MLDSA.SecurityLevel}
+ * and report results with the same integer codes as the native library:
+ * 0 for success, -1 for an invalid signature, -2 for out of memory and -100 for
+ * an invalid parameter. {@link #sign} and {@link #signMu} return the signature
+ * length on success.
+ *
+ * @see MLDSA#setEngine(MLDSAEngine)
+ */
+public interface MLDSAEngine {
+
+    /**
+     * Short engine name, e.g. "native" or "java"
+     */
+    String getName();
+
+    /**
+     * Whether this engine can serve the given security level in the current process
+     */
+    boolean isAvailable(MLDSA.SecurityLevel level);
+
+    int generateKeyPair(MLDSA.SecurityLevel level, byte[] publicKey, byte[] secretKey);
+
+    int generateKeyPairWithSeed(MLDSA.SecurityLevel level, byte[] seed, byte[] publicKey, byte[] secretKey);
+
+    int sign(MLDSA.SecurityLevel level, byte[] message, byte[] secretKey, byte[] context,
+             boolean deterministic, byte[] signature);
+
+    int verify(MLDSA.SecurityLevel level, byte[] signature, byte[] message, byte[] publicKey, byte[] context);
+
+    /**
+     * Sign a precomputed message representative mu = H(tr || M', 64) (FIPS 204, external mu)
+     */
+    int signMu(MLDSA.SecurityLevel level, byte[] mu, byte[] secretKey, boolean deterministic, byte[] signature);
+
+    /**
+     * Verify a signature over a precomputed message representative mu
+     */
+    int verifyMu(MLDSA.SecurityLevel level, byte[] signature, byte[] mu, byte[] publicKey);
+
+    /**
+     * New incremental SHAKE256 for computing mu over streamed messages
+     */
+    Shake256 newShake256(MLDSA.SecurityLevel level);
+}
@@ -0,0 +1,267 @@
+package com.mldsa;
+
+import java.security.MessageDigest;
+import java.security.spec.InvalidKeySpecException;
+import java.util.Arrays;
+
+/**
+ * X.509 (SubjectPublicKeyInfo) and PKCS#8 (PrivateKeyInfo) encodings of ML-DSA keys
+ * as specified for the id-ml-dsa-44/65/87 algorithm identifiers (RFC 9881).
+ *
+ * Private keys are written in the "both" form (seed and expanded key) when the
+ * seed is known, otherwise as the expanded key; all three forms are accepted.
+ */
+final class MLDSAKeyEncoding {
+
+    static final String ALGORITHM = "ML-DSA";
+
+    // 2.16.840.1.101.3.4.3 (sigAlgs), followed by 17, 18 or 19
+    private static final byte[] OID_PREFIX = {0x60, (byte) 0x86, 0x48, 0x01, 0x65, 0x03, 0x04, 0x03};
+    private static final String OID_PREFIX_STRING = "2.16.840.1.101.3.4.3.";
+
+    private static final int TAG_INTEGER = 0x02;
+    private static final int TAG_BIT_STRING = 0x03;
+    private static final int TAG_OCTET_STRING = 0x04;
+    private static final int TAG_OID = 0x06;
+    private static final int TAG_SEQUENCE = 0x30;
+    private static final int TAG_SEED = 0x80; // [0] IMPLICIT OCTET STRING
+
+    private MLDSAKeyEncoding() {
+    }
+
+    static String algorithmName(MLDSA.SecurityLevel level) {
+        return ALGORITHM + "-" + level.getValue();
+    }
+
+    static String oid(MLDSA.SecurityLevel level) {
+        return OID_PREFIX_STRING + oidArc(level);
+    }
+
+    static byte[] encodePublicKey(MLDSA.SecurityLevel level, byte[] publicKey) {
+        byte[] bits = new byte[publicKey.length + 1];
+        System.arraycopy(publicKey, 0, bits, 1, publicKey.length);
+        return tlv(TAG_SEQUENCE, algorithmIdentifier(level), tlv(TAG_BIT_STRING, bits));
+    }
+
+    static byte[] encodePrivateKey(MLDSA.SecurityLevel level, byte[] seed, byte[] secretKey) {
+        byte[] privateKey = seed != null
+                ? tlv(TAG_SEQUENCE, tlv(TAG_OCTET_STRING, seed), tlv(TAG_OCTET_STRING, secretKey))
+                : tlv(TAG_OCTET_STRING, secretKey);
+        byte[] version = {TAG_INTEGER, 0x01, 0x00};
+        return tlv(TAG_SEQUENCE, version, algorithmIdentifier(level), tlv(TAG_OCTET_STRING, privateKey));
+    }
+
+    static MLDSAPublicKey decodePublicKey(byte[] encoded) throws InvalidKeySpecException {
+        DerReader outer = new DerReader(encoded, 0, encoded.length);
+        DerReader info = outer.readConstructed(TAG_SEQUENCE);
+        outer.expectEnd();
+
+        MLDSA.SecurityLevel level = readAlgorithmIdentifier(info);
+        byte[] bits = info.readPrimitive(TAG_BIT_STRING);
+        info.expectEnd();
+
+        if (bits.length != level.getPublicKeySize() + 1 || bits[0] != 0) {
+            throw new InvalidKeySpecException("Invalid " + algorithmName(level) + " public key length");
+        }
+        return new MLDSAPublicKey(Arrays.copyOfRange(bits, 1, bits.length), level);
+    }
+
+    static MLDSAPrivateKey decodePrivateKey(byte[] encoded) throws InvalidKeySpecException {
+        DerReader outer = new DerReader(encoded, 0, encoded.length);
+        DerReader info = outer.readConstructed(TAG_SEQUENCE);
+        outer.expectEnd();
+
+        byte[] version = info.readPrimitive(TAG_INTEGER);
+        if (version.length != 1 || (version[0] != 0 && version[0] != 1)) {
+            throw new InvalidKeySpecException("Unsupported PKCS#8 version");
+        }
+        MLDSA.SecurityLevel level = readAlgorithmIdentifier(info);
+        byte[] privateKey = info.readPrimitive(TAG_OCTET_STRING);
+        // Optional attributes and public key (OneAsymmetricKey) are ignored
+
+        DerReader reader = new DerReader(privateKey, 0, privateKey.length);
+        byte[] seed = null;
+        byte[] secretKey = null;
+        switch (reader.peekTag()) {
+            case TAG_SEED:
+                seed = reader.readPrimitive(TAG_SEED);
+                break;
+            case TAG_OCTET_STRING:
+                secretKey = reader.readPrimitive(TAG_OCTET_STRING);
+                break;
+            case TAG_SEQUENCE:
+                DerReader both = reader.readConstructed(TAG_SEQUENCE);
+                seed = both.readPrimitive(TAG_OCTET_STRING);
+                secretKey = both.readPrimitive(TAG_OCTET_STRING);
+                both.expectEnd();
+                break;
+            default:
+                throw new InvalidKeySpecException("Unsupported ML-DSA private key format");
+        }
+        reader.expectEnd();
+
+        if (seed != null && seed.length != MLDSA.SEEDBYTES) {
+            throw new InvalidKeySpecException("Invalid ML-DSA seed length");
+        }
+        if (secretKey != null && secretKey.length != level.getSecretKeySize()) {
+            throw new InvalidKeySpecException("Invalid " + algorithmName(level) + " private key length");
+        }
+
+        if (seed != null) {
+            byte[] derived = expandSeed(level, seed);
+            if (secretKey != null && !MessageDigest.isEqual(derived, secretKey)) {
+                Arrays.fill(derived, (byte) 0);
+                throw new InvalidKeySpecException("ML-DSA seed and expanded key do not match");
+            }
+            secretKey = derived;
+        }
+        return new MLDSAPrivateKey(secretKey, seed, level);
+    }
+
+    /**
+     * Derive the expanded secret key from a 32-byte seed (ML-DSA.KeyGen_internal)
+     */
+    private static byte[] expandSeed(MLDSA.SecurityLevel level, byte[] seed) throws InvalidKeySpecException {
+        byte[] publicKey = new byte[level.getPublicKeySize()];
+        byte[] secretKey = new byte[level.getSecretKeySize()];
+        int result;
+        try {
+            result = MLDSA.getEngine(level).generateKeyPairWithSeed(level, seed, publicKey, secretKey);
+        } catch (MLDSA.MLDSAException e) {
+            throw new InvalidKeySpecException(e.getMessage(), e);
+        }
+        if (result != 0) {
+            throw new InvalidKeySpecException("ML-DSA key expansion failed with error code: " + result);
+        }
+        return secretKey;
+    }
+
+    private static byte[] algorithmIdentifier(MLDSA.SecurityLevel level) {
+        byte[] oid = Arrays.copyOf(OID_PREFIX, OID_PREFIX.length + 1);
+        oid[OID_PREFIX.length] = (byte) oidArc(level);
+        // Parameters are absent for ML-DSA
+        return tlv(TAG_SEQUENCE, tlv(TAG_OID, oid));
+    }
+
+    private static MLDSA.SecurityLevel readAlgorithmIdentifier(DerReader info) throws InvalidKeySpecException {
+        DerReader algorithm = info.readConstructed(TAG_SEQUENCE);
+        byte[] oid = algorithm.readPrimitive(TAG_OID);
+        algorithm.expectEnd();
+
+        if (oid.length == OID_PREFIX.length + 1
+                && Arrays.equals(Arrays.copyOf(oid, OID_PREFIX.length), OID_PREFIX)) {
+            for (MLDSA.SecurityLevel level : MLDSA.SecurityLevel.values()) {
+                if (oid[OID_PREFIX.length] == oidArc(level)) {
+                    return level;
+                }
+            }
+        }
+        throw new InvalidKeySpecException("Not an ML-DSA key");
+    }
+
+    private static int oidArc(MLDSA.SecurityLevel level) {
+        switch (level) {
+            case LEVEL_44:
+                return 17;
+            case LEVEL_65:
+                return 18;
+            default:
+                return 19;
+        }
+    }
+
+    private static byte[] tlv(int tag, byte[]... contents) {
+        int length = 0;
+        for (byte[] content : contents) {
+            length += content.length;
+        }
+        int lengthBytes = length < 0x80 ? 1 : length < 0x100 ? 2 : length < 0x10000 ? 3 : 4;
+
+        byte[] out = new byte[1 + lengthBytes + length];
+        out[0] = (byte) tag;
+        if (lengthBytes == 1) {
+            out[1] = (byte) length;
+        } else {
+            out[1] = (byte) (0x80 | (lengthBytes - 1));
+            for (int i = 0; i < lengthBytes - 1; i++) {
+                out[lengthBytes - i] = (byte) (length >>> (8 * i));
+            }
+        }
+        int off = 1 + lengthBytes;
+        for (byte[] content : contents) {
+            System.arraycopy(content, 0, out, off, content.length);
+            off += content.length;
+        }
+        return out;
+    }
+
+    /**
+     * Minimal DER reader for the structures above (definite lengths only)
+     */
+    private static final class DerReader {
+        private final byte[] data;
+        private final int end;
+        private int pos;
+
+        DerReader(byte[] data, int pos, int end) {
+            this.data = data;
+            this.pos = pos;
+            this.end = end;
+        }
+
+        int peekTag() throws InvalidKeySpecException {
+            if (pos >= end) {
+                throw new InvalidKeySpecException("Truncated DER encoding");
+            }
+            return data[pos] & 0xFF;
+        }
+
+        DerReader readConstructed(int tag) throws InvalidKeySpecException {
+            int length = readHeader(tag);
+            DerReader content = new DerReader(data, pos, pos + length);
+            pos += length;
+            return content;
+        }
+
+        byte[] readPrimitive(int tag) throws InvalidKeySpecException {
+            int length = readHeader(tag);
+            byte[] content = Arrays.copyOfRange(data, pos, pos + length);
+            pos += length;
+            return content;
+        }
+
+        void expectEnd() throws InvalidKeySpecException {
+            if (pos != end) {
+                throw new InvalidKeySpecException("Trailing data in DER encoding");
+            }
+        }
+
+        private int readHeader(int tag) throws InvalidKeySpecException {
+            if (peekTag() != tag) {
+                throw new InvalidKeySpecException("Unexpected DER tag " + peekTag() + ", expected " + tag);
+            }
+            pos++;
+            if (pos >= end) {
+                throw new InvalidKeySpecException("Truncated DER encoding");
+            }
+            int first = data[pos++] & 0xFF;
+            int length;
+            if (first < 0x80) {
+                length = first;
+            } else {
+                int count = first & 0x7F;
+                if (count == 0 || count > 3 || end - pos < count) {
+                    throw new InvalidKeySpecException("Unsupported DER length");
+                }
+                length = 0;
+                for (int i = 0; i < count; i++) {
+                    length = (length << 8) | (data[pos++] & 0xFF);
+                }
+            }
+            if (length > end - pos) {
+                throw new InvalidKeySpecException("Truncated DER encoding");
+            }
+            return length;
+        }
+    }
+}
@@ -0,0 +1,193 @@
+package com.mldsa;
+
+import java.security.InvalidKeyException;
+import java.security.Key;
+import java.security.KeyFactorySpi;
+import java.security.PrivateKey;
+import java.security.PublicKey;
+import java.security.spec.InvalidKeySpecException;
+import java.security.spec.KeySpec;
+import java.security.spec.PKCS8EncodedKeySpec;
+import java.security.spec.X509EncodedKeySpec;
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import javax.security.auth.Destroyable;
+
+/**
+ * KeyFactory for ML-DSA keys in X.509 and PKCS#8 encodings.
+ *
+ * Public keys from other providers are translated by decoding their encoding
+ * once; the result is kept in a small concurrent cache keyed by the encoding, so
+ * passing the same key to many {@link java.security.Signature} instances does
+ * not decode (or re-hash) it again. Private keys are decoded on every
+ * translation and never cached, so no copy outlives the caller's key.
+ */
+public class MLDSAKeyFactorySpi extends KeyFactorySpi {
+
+    // Cleared when full; public keys are not secret, the bound only caps memory
+    private static final int MAX_TRANSLATED_PUBLIC_KEYS = 64;
+    private static final ConcurrentMap<EncodedKey, MLDSAPublicKey> TRANSLATED_PUBLIC_KEYS =
+            new ConcurrentHashMap<EncodedKey, MLDSAPublicKey>();
+
+    private final MLDSA.SecurityLevel securityLevel;
+
+    /**
+     * Factory accepting keys of any security level ("ML-DSA")
+     */
+    public MLDSAKeyFactorySpi() {
+        this(null);
+    }
+
+    MLDSAKeyFactorySpi(MLDSA.SecurityLevel securityLevel) {
+        this.securityLevel = securityLevel;
+    }
+
+    @Override
+    protected PublicKey engineGeneratePublic(KeySpec keySpec) throws InvalidKeySpecException {
+        if (!(keySpec instanceof X509EncodedKeySpec)) {
+            throw new InvalidKeySpecException("Only X509EncodedKeySpec is supported");
+        }
+        MLDSAPublicKey key = MLDSAKeyEncoding.decodePublicKey(((X509EncodedKeySpec) keySpec).getEncoded());
+        if (securityLevel != null && key.getSecurityLevel() != securityLevel) {
+            throw new InvalidKeySpecException("Expected an " + MLDSAKeyEncoding.algorithmName(securityLevel)
+                    + " key, got " + key.getAlgorithm());
+        }
+        return key;
+    }
+
+    @Override
+    protected PrivateKey engineGeneratePrivate(KeySpec keySpec) throws InvalidKeySpecException {
+        if (!(keySpec instanceof PKCS8EncodedKeySpec)) {
+            throw new InvalidKeySpecException("Only PKCS8EncodedKeySpec is supported");
+        }
+        MLDSAPrivateKey key = MLDSAKeyEncoding.decodePrivateKey(((PKCS8EncodedKeySpec) keySpec).getEncoded());
+        if (securityLevel != null && key.getSecurityLevel() != securityLevel) {
+            throw new InvalidKeySpecException("Expected an " + MLDSAKeyEncoding.algorithmName(securityLevel)
+                    + " key, got " + key.getAlgorithm());
+        }
+        return key;
+    }
+
+    @Override
+    protected <T extends KeySpec> T engineGetKeySpec(Key key, Class<T> keySpec) throws InvalidKeySpecException {
+        Key translated;
+        try {
+            translated = engineTranslateKey(key);
+        } catch (InvalidKeyException e) {
+            throw new InvalidKeySpecException(e.getMessage(), e);
+        }
+        if (translated instanceof MLDSAPublicKey && keySpec.isAssignableFrom(X509EncodedKeySpec.class)) {
+            return keySpec.cast(new X509EncodedKeySpec(translated.getEncoded()));
+        }
+        if (translated instanceof MLDSAPrivateKey && keySpec.isAssignableFrom(PKCS8EncodedKeySpec.class)) {
+            return keySpec.cast(new PKCS8EncodedKeySpec(translated.getEncoded()));
+        }
+        throw new InvalidKeySpecException("Unsupported key spec " + keySpec.getName() + " for " + key.getFormat());
+    }
+
+    @Override
+    protected Key engineTranslateKey(Key key) throws InvalidKeyException {
+        Key translated;
+        if (key instanceof PublicKey) {
+            translated = translatePublicKey((PublicKey) key);
+        } else if (key instanceof PrivateKey) {
+            translated = translatePrivateKey((PrivateKey) key);
+        } else {
+            throw new InvalidKeyException("Unsupported key type " + (key != null ? key.getClass().getName() : null));
+        }
+        if (securityLevel != null && !translated.getAlgorithm().equals(MLDSAKeyEncoding.algorithmName(securityLevel))) {
+            throw new InvalidKeyException("Expected an " + MLDSAKeyEncoding.algorithmName(securityLevel)
+                    + " key, got " + translated.getAlgorithm());
+        }
+        return translated;
+    }
+
+    static MLDSAPublicKey translatePublicKey(PublicKey key) throws InvalidKeyException {
+        if (key instanceof MLDSAPublicKey) {
+            return (MLDSAPublicKey) key;
+        }
+        byte[] encoded = key != null && "X.509".equals(key.getFormat()) ? key.getEncoded() : null;
+        if (encoded == null) {
+            throw new InvalidKeyException("Expected an X.509 encoded ML-DSA public key");
+        }
+
+        EncodedKey cacheKey = new EncodedKey(encoded);
+        MLDSAPublicKey cached = TRANSLATED_PUBLIC_KEYS.get(cacheKey);
+        if (cached != null) {
+            return cached;
+        }
+        try {
+            MLDSAPublicKey translated = MLDSAKeyEncoding.decodePublicKey(encoded);
+            if (TRANSLATED_PUBLIC_KEYS.size() >= MAX_TRANSLATED_PUBLIC_KEYS) {
+                TRANSLATED_PUBLIC_KEYS.clear();
+            }
+            cached = TRANSLATED_PUBLIC_KEYS.putIfAbsent(cacheKey, translated);
+            return cached != null ? cached : translated;
+        } catch (InvalidKeySpecException e) {
+            throw new InvalidKeyException(e.getMessage(), e);
+        }
+    }
+
+    static MLDSAPrivateKey translatePrivateKey(PrivateKey key) throws InvalidKeyException {
+        if (key instanceof MLDSAPrivateKey) {
+            return (MLDSAPrivateKey) key;
+        }
+        if (key instanceof Destroyable && ((Destroyable) key).isDestroyed()) {
+            throw new InvalidKeyException("Key has been destroyed");
+        }
+        byte[] encoded = key != null && "PKCS#8".equals(key.getFormat()) ? key.getEncoded() : null;
+        if (encoded == null) {
+            throw new InvalidKeyException("Expected a PKCS#8 encoded ML-DSA private key");
+        }
+        try {
+            return MLDSAKeyEncoding.decodePrivateKey(encoded);
+        } catch (InvalidKeySpecException e) {
+            throw new InvalidKeyException(e.getMessage(), e);
+        } finally {
+            Arrays.fill(encoded, (byte) 0);
+        }
+    }
+
+    /**
+     * Cache key comparing encodings by content
+     */
+    private static final class EncodedKey {
+        private final byte[] encoded;
+        private final int hash;
+
+        EncodedKey(byte[] encoded) {
+            this.encoded = encoded;
+            this.hash = Arrays.hashCode(encoded);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof EncodedKey && Arrays.equals(encoded, ((EncodedKey) o).encoded);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+
+    public static final class MLDSA44 extends MLDSAKeyFactorySpi {
+        public MLDSA44() {
+            super(MLDSA.SecurityLevel.LEVEL_44);
+        }
+    }
+
+    public static final class MLDSA65 extends MLDSAKeyFactorySpi {
+        public MLDSA65() {
+            super(MLDSA.SecurityLevel.LEVEL_65);
+        }
+    }
+
+    public static final class MLDSA87 extends MLDSAKeyFactorySpi {
+        public MLDSA87() {
+            super(MLDSA.SecurityLevel.LEVEL_87);
+        }
+    }
+}
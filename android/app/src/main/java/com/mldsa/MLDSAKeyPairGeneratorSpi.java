@@ -0,0 +1,109 @@
+package com.mldsa;
+
+import java.security.InvalidAlgorithmParameterException;
+import java.security.InvalidParameterException;
+import java.security.KeyPair;
+import java.security.KeyPairGeneratorSpi;
+import java.security.ProviderException;
+import java.security.SecureRandom;
+import java.security.spec.AlgorithmParameterSpec;
+import java.util.Arrays;
+
+/**
+ * KeyPairGenerator for ML-DSA.
+ *
+ * Keys are derived from a 32-byte seed drawn from the configured SecureRandom,
+ * so private keys can be exported in the compact seed form. The generic
+ * "ML-DSA" generator produces ML-DSA-65 keys unless initialized with a key size
+ * of 44, 65 or 87.
+ */
+public class MLDSAKeyPairGeneratorSpi extends KeyPairGeneratorSpi {
+
+    private final boolean fixedLevel;
+    private MLDSA.SecurityLevel securityLevel;
+    private SecureRandom random;
+
+    /**
+     * Generator for any security level ("ML-DSA"), ML-DSA-65 by default
+     */
+    public MLDSAKeyPairGeneratorSpi() {
+        this.fixedLevel = false;
+        this.securityLevel = MLDSA.SecurityLevel.LEVEL_65;
+    }
+
+    MLDSAKeyPairGeneratorSpi(MLDSA.SecurityLevel securityLevel) {
+        this.fixedLevel = true;
+        this.securityLevel = securityLevel;
+    }
+
+    /**
+     * @param keysize Security level value: 44, 65 or 87
+     */
+    @Override
+    public void initialize(int keysize, SecureRandom random) {
+        MLDSA.SecurityLevel level;
+        try {
+            level = MLDSA.SecurityLevel.fromValue(keysize);
+        } catch (IllegalArgumentException e) {
+            throw new InvalidParameterException("Unsupported ML-DSA level: " + keysize);
+        }
+        if (fixedLevel && level != securityLevel) {
+            throw new InvalidParameterException("This generator only produces "
+                    + MLDSAKeyEncoding.algorithmName(securityLevel) + " keys");
+        }
+        this.securityLevel = level;
+        this.random = random;
+    }
+
+    @Override
+    public void initialize(AlgorithmParameterSpec params, SecureRandom random)
+            throws InvalidAlgorithmParameterException {
+        if (params != null) {
+            throw new InvalidAlgorithmParameterException("ML-DSA takes no parameters; use initialize(int)");
+        }
+        this.random = random;
+    }
+
+    @Override
+    public KeyPair generateKeyPair() {
+        if (random == null) {
+            random = new SecureRandom();
+        }
+        MLDSA.SecurityLevel level = securityLevel;
+
+        byte[] seed = new byte[MLDSA.SEEDBYTES];
+        byte[] publicKey = new byte[level.getPublicKeySize()];
+        byte[] secretKey = new byte[level.getSecretKeySize()];
+        try {
+            random.nextBytes(seed);
+            int result = MLDSA.getEngine(level).generateKeyPairWithSeed(level, seed, publicKey, secretKey);
+            if (result != 0) {
+                throw new ProviderException("ML-DSA key generation failed with error code: " + result);
+            }
+            return new KeyPair(new MLDSAPublicKey(publicKey, level), new MLDSAPrivateKey(secretKey, seed, level));
+        } catch (MLDSA.MLDSAException e) {
+            throw new ProviderException(e.getMessage(), e);
+        } finally {
+            Arrays.fill(seed, (byte) 0);
+            Arrays.fill(secretKey, (byte) 0);
+        }
+    }
+
+    public static final class MLDSA44 extends MLDSAKeyPairGeneratorSpi {
+        public MLDSA44() {
+            super(MLDSA.SecurityLevel.LEVEL_44);
+        }
+    }
+
+    public static final class MLDSA65 extends MLDSAKeyPairGeneratorSpi {
+        public MLDSA65() {
+            super(MLDSA.SecurityLevel.LEVEL_65);
+        }
+    }
+
+    public static final class MLDSA87 extends MLDSAKeyPairGeneratorSpi {
+        public MLDSA87() {
+            super(MLDSA.SecurityLevel.LEVEL_87);
+        }
+    }
+}
@@ -0,0 +1,84 @@
+package com.mldsa;
+
+/**
+ * ML-DSA parameter sets (FIPS 204, Table 1) and the derived encoding sizes
+ * used by the pure-Java engine.
+ */
+final class MLDSAParams {
+
+    static final int SEEDBYTES = 32;
+    static final int CRHBYTES = 64;
+    static final int TRBYTES = 64;
+    static final int RNDBYTES = 32;
+
+    static final int POLYT1_PACKEDBYTES = 320;
+    static final int POLYT0_PACKEDBYTES = 416;
+
+    static final MLDSAParams ML_DSA_44 = new MLDSAParams(MLDSA.SecurityLevel.LEVEL_44,
+            4, 4, 2, 39, 78, 1 << 17, (Poly.Q - 1) / 88, 80, 32);
+    static final MLDSAParams ML_DSA_65 = new MLDSAParams(MLDSA.SecurityLevel.LEVEL_65,
+            6, 5, 4, 49, 196, 1 << 19, (Poly.Q - 1) / 32, 55, 48);
+    static final MLDSAParams ML_DSA_87 = new MLDSAParams(MLDSA.SecurityLevel.LEVEL_87,
+            8, 7, 2, 60, 120, 1 << 19, (Poly.Q - 1) / 32, 75, 64);
+
+    final MLDSA.SecurityLevel level;
+    final int k;
+    final int l;
+    final int eta;
+    final int tau;
+    final int beta;
+    final int gamma1;
+    final int gamma2;
+    final int omega;
+    final int ctildeBytes;
+
+    final int etaBits;
+    final int gamma1Bits;
+    final int w1Bits;
+    final int polyEtaPackedBytes;
+    final int polyZPackedBytes;
+    final int polyW1PackedBytes;
+
+    final int publicKeyBytes;
+    final int secretKeyBytes;
+    final int signatureBytes;
+
+    private MLDSAParams(MLDSA.SecurityLevel level, int k, int l, int eta, int tau, int beta,
+                        int gamma1, int gamma2, int omega, int ctildeBytes) {
+        this.level = level;
+        this.k = k;
+        this.l = l;
+        this.eta = eta;
+        this.tau = tau;
+        this.beta = beta;
+        this.gamma1 = gamma1;
+        this.gamma2 = gamma2;
+        this.omega = omega;
+        this.ctildeBytes = ctildeBytes;
+
+        this.etaBits = eta == 2 ? 3 : 4;
+        this.gamma1Bits = gamma1 == (1 << 17) ? 18 : 20;
+        this.w1Bits = gamma2 == (Poly.Q - 1) / 88 ? 6 : 4;
+        this.polyEtaPackedBytes = Poly.N * etaBits / 8;
+        this.polyZPackedBytes = Poly.N * gamma1Bits / 8;
+        this.polyW1PackedBytes = Poly.N * w1Bits / 8;
+
+        this.publicKeyBytes = SEEDBYTES + k * POLYT1_PACKEDBYTES;
+        this.secretKeyBytes = 2 * SEEDBYTES + TRBYTES
+                + (l + k) * polyEtaPackedBytes + k * POLYT0_PACKEDBYTES;
+        this.signatureBytes = ctildeBytes + l * polyZPackedBytes + omega + k;
+    }
+
+    static MLDSAParams forLevel(MLDSA.SecurityLevel level) {
+        switch (level) {
+            case LEVEL_44:
+                return ML_DSA_44;
+            case LEVEL_65:
+                return ML_DSA_65;
+            case LEVEL_87:
+                return ML_DSA_87;
+            default:
+                throw new IllegalArgumentException("Invalid security level: " + level);
+        }
+    }
+}
@@ -0,0 +1,123 @@
+package com.mldsa;
+
+import java.security.MessageDigest;
+import java.security.PrivateKey;
+import java.util.Arrays;
+
+/**
+ * ML-DSA private key for the JCA {@link MLDSAProvider}.
+ *
+ * Holds the expanded secret key and, for keys generated or imported from a seed,
+ * the 32-byte seed, which is then included in the PKCS#8 encoding. The key hash
+ * tr is part of the expanded key, so signing needs no per-key preparation.
+ */
+public final class MLDSAPrivateKey implements PrivateKey {
+
+    private static final long serialVersionUID = 1L;
+
+    private final byte[] secretKey;
+    private final byte[] seed;
+    private final MLDSA.SecurityLevel securityLevel;
+    private volatile boolean destroyed;
+
+    /**
+     * @param secretKey     Expanded secret key
+     * @param securityLevel Security level the key belongs to
+     */
+    public MLDSAPrivateKey(byte[] secretKey, MLDSA.SecurityLevel securityLevel) {
+        this(secretKey, null, securityLevel);
+    }
+
+    MLDSAPrivateKey(byte[] secretKey, byte[] seed, MLDSA.SecurityLevel securityLevel) {
+        if (secretKey == null || securityLevel == null || secretKey.length != securityLevel.getSecretKeySize()) {
+            throw new IllegalArgumentException("Invalid secret key for " + securityLevel);
+        }
+        if (seed != null && seed.length != MLDSA.SEEDBYTES) {
+            throw new IllegalArgumentException("Seed must be " + MLDSA.SEEDBYTES + " bytes");
+        }
+        this.secretKey = secretKey.clone();
+        this.seed = seed != null ? seed.clone() : null;
+        this.securityLevel = securityLevel;
+    }
+
+    public MLDSA.SecurityLevel getSecurityLevel() {
+        return securityLevel;
+    }
+
+    /**
+     * Expanded secret key bytes (a copy)
+     */
+    public byte[] getKeyBytes() {
+        checkNotDestroyed();
+        return secretKey.clone();
+    }
+
+    @Override
+    public String getAlgorithm() {
+        return MLDSAKeyEncoding.algorithmName(securityLevel);
+    }
+
+    @Override
+    public String getFormat() {
+        return "PKCS#8";
+    }
+
+    @Override
+    public byte[] getEncoded() {
+        checkNotDestroyed();
+        return MLDSAKeyEncoding.encodePrivateKey(securityLevel, seed, secretKey);
+    }
+
+    /**
+     * Raw key without copying, for use inside the library
+     */
+    byte[] keyBytes() {
+        checkNotDestroyed();
+        return secretKey;
+    }
+
+    /**
+     * Offset of tr = H(pk, 64) within the expanded key (after rho and K)
+     */
+    static int trOffset() {
+        return 2 * MLDSAParams.SEEDBYTES;
+    }
+
+    @Override
+    public void destroy() {
+        Arrays.fill(secretKey, (byte) 0);
+        if (seed != null) {
+            Arrays.fill(seed, (byte) 0);
+        }
+        destroyed = true;
+    }
+
+    @Override
+    public boolean isDestroyed() {
+        return destroyed;
+    }
+
+    private void checkNotDestroyed() {
+        if (destroyed) {
+            throw new IllegalStateException("Key has been destroyed");
+        }
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof MLDSAPrivateKey)) {
+            return false;
+        }
+        MLDSAPrivateKey other = (MLDSAPrivateKey) o;
+        return securityLevel == other.securityLevel && MessageDigest.isEqual(secretKey, other.secretKey);
+    }
+
+    @Override
+    public int hashCode() {
+        // The public seed rho is enough to spread keys; the secret parts stay out of the hash
+        return 31 * securityLevel.hashCode() + Arrays.hashCode(Arrays.copyOf(secretKey, MLDSAParams.SEEDBYTES));
+    }
+}
@@ -0,0 +1,43 @@
+package com.mldsa;
+
+import java.security.Provider;
+
+/**
+ * JCA provider exposing ML-DSA through the standard APIs.
+ *
+ * Registers Signature, KeyPairGenerator and KeyFactory for "ML-DSA-44",
+ * "ML-DSA-65" and "ML-DSA-87" (also reachable by OID), plus generic "ML-DSA"
+ * services that take the level from the key. All operations run on the engine
+ * selected by {@link MLDSA#getEngine(MLDSA.SecurityLevel)}.
+ *
+ * <pre>
+ *   Security.addProvider(new MLDSAProvider());
+ *   Signature signature = Signature.getInstance("ML-DSA-65", MLDSAProvider.NAME);
+ * </pre>
+ */
+public final class MLDSAProvider extends Provider {
+
+    private static final long serialVersionUID = 1L;
+
+    public static final String NAME = "MLDSA";
+
+    public MLDSAProvider() {
+        super(NAME, 1.0, "ML-DSA (FIPS 204) Signature, KeyPairGenerator and KeyFactory");
+
+        register("Signature", MLDSASignatureSpi.class.getName());
+        register("KeyPairGenerator", MLDSAKeyPairGeneratorSpi.class.getName());
+        register("KeyFactory", MLDSAKeyFactorySpi.class.getName());
+    }
+
+    private void register(String type, String spiClassName) {
+        put(type + "." + MLDSAKeyEncoding.ALGORITHM, spiClassName);
+        for (MLDSA.SecurityLevel level : MLDSA.SecurityLevel.values()) {
+            String algorithm = MLDSAKeyEncoding.algorithmName(level);
+            String oid = MLDSAKeyEncoding.oid(level);
+
+            put(type + "." + algorithm, spiClassName + "$MLDSA" + level.getValue());
+            put("Alg.Alias." + type + "." + oid, algorithm);
+            put("Alg.Alias." + type + ".OID." + oid, algorithm);
+        }
+    }
+}
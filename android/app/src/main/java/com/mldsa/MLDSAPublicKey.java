@@ -0,0 +1,104 @@
+package com.mldsa;
+
+import java.security.PublicKey;
+import java.util.Arrays;
+
+/**
+ * ML-DSA public key for the JCA {@link MLDSAProvider}.
+ *
+ * Besides the raw key, an instance caches its X.509 encoding and the key hash
+ * tr = H(pk, 64) that prefixes every message representative, so verifying many
+ * messages with the same key object hashes the key only once.
+ */
+public final class MLDSAPublicKey implements PublicKey {
+
+    private static final long serialVersionUID = 1L;
+
+    private final byte[] publicKey;
+    private final MLDSA.SecurityLevel securityLevel;
+
+    private transient volatile byte[] tr;
+    private transient volatile byte[] encoded;
+
+    /**
+     * @param publicKey     Raw public key
+     * @param securityLevel Security level the key belongs to
+     */
+    public MLDSAPublicKey(byte[] publicKey, MLDSA.SecurityLevel securityLevel) {
+        if (publicKey == null || securityLevel == null || publicKey.length != securityLevel.getPublicKeySize()) {
+            throw new IllegalArgumentException("Invalid public key for " + securityLevel);
+        }
+        this.publicKey = publicKey.clone();
+        this.securityLevel = securityLevel;
+    }
+
+    public MLDSA.SecurityLevel getSecurityLevel() {
+        return securityLevel;
+    }
+
+    /**
+     * Raw public key bytes (a copy)
+     */
+    public byte[] getKeyBytes() {
+        return publicKey.clone();
+    }
+
+    @Override
+    public String getAlgorithm() {
+        return MLDSAKeyEncoding.algorithmName(securityLevel);
+    }
+
+    @Override
+    public String getFormat() {
+        return "X.509";
+    }
+
+    @Override
+    public byte[] getEncoded() {
+        byte[] result = encoded;
+        if (result == null) {
+            result = MLDSAKeyEncoding.encodePublicKey(securityLevel, publicKey);
+            encoded = result;
+        }
+        return result.clone();
+    }
+
+    /**
+     * Raw key without copying, for use inside the library
+     */
+    byte[] keyBytes() {
+        return publicKey;
+    }
+
+    /**
+     * tr = H(pk, 64), computed with {@code engine} on first use
+     */
+    byte[] tr(MLDSAEngine engine) {
+        byte[] result = tr;
+        if (result == null) {
+            result = new byte[MLDSAParams.TRBYTES];
+            Shake256 h = engine.newShake256(securityLevel);
+            h.update(publicKey, 0, publicKey.length);
+            h.squeeze(result, 0, result.length);
+            tr = result;
+        }
+        return result;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof MLDSAPublicKey)) {
+            return false;
+        }
+        MLDSAPublicKey other = (MLDSAPublicKey) o;
+        return securityLevel == other.securityLevel && Arrays.equals(publicKey, other.publicKey);
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * securityLevel.hashCode() + Arrays.hashCode(publicKey);
+    }
+}
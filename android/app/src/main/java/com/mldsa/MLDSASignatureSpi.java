@@ -0,0 +1,213 @@
+package com.mldsa;
+
+import java.nio.ByteBuffer;
+import java.security.InvalidAlgorithmParameterException;
+import java.security.InvalidKeyException;
+import java.security.InvalidParameterException;
+import java.security.PrivateKey;
+import java.security.ProviderException;
+import java.security.PublicKey;
+import java.security.SecureRandom;
+import java.security.SignatureException;
+import java.security.SignatureSpi;
+import java.security.spec.AlgorithmParameterSpec;
+import java.util.Arrays;
+
+/**
+ * Pure ML-DSA Signature (FIPS 204, empty context) with streaming input.
+ *
+ * update() feeds the engine's incremental SHAKE256 directly, computing
+ * mu = H(tr || 0 || 0 || M, 64) as data arrives; sign() and verify() then run
+ * ML-DSA on mu (external mu), so messages are never buffered or copied. The
+ * hash and the translated key are kept across init calls, and the key hash tr
+ * is cached on the key object, so re-initializing with a known key is cheap.
+ *
+ * Hedged signatures take their randomness from the library's OS RNG; a
+ * SecureRandom passed to initSign is not used.
+ */
+public class MLDSASignatureSpi extends SignatureSpi {
+
+    private final MLDSA.SecurityLevel fixedLevel;
+    private final byte[] mu = new byte[MLDSAParams.CRHBYTES];
+
+    private MLDSA.SecurityLevel securityLevel;
+    private MLDSAEngine engine;
+    private Shake256 digest;
+    private MLDSAPublicKey publicKey;
+    private MLDSAPrivateKey privateKey;
+
+    /**
+     * Signature accepting keys of any security level ("ML-DSA")
+     */
+    public MLDSASignatureSpi() {
+        this(null);
+    }
+
+    MLDSASignatureSpi(MLDSA.SecurityLevel fixedLevel) {
+        this.fixedLevel = fixedLevel;
+    }
+
+    @Override
+    protected void engineInitVerify(PublicKey key) throws InvalidKeyException {
+        MLDSAPublicKey translated = MLDSAKeyFactorySpi.translatePublicKey(key);
+        prepare(translated.getSecurityLevel());
+        privateKey = null;
+        publicKey = translated;
+        restart();
+    }
+
+    @Override
+    protected void engineInitSign(PrivateKey key) throws InvalidKeyException {
+        MLDSAPrivateKey translated = MLDSAKeyFactorySpi.translatePrivateKey(key);
+        if (translated.isDestroyed()) {
+            throw new InvalidKeyException("Key has been destroyed");
+        }
+        prepare(translated.getSecurityLevel());
+        publicKey = null;
+        privateKey = translated;
+        restart();
+    }
+
+    @Override
+    protected void engineInitSign(PrivateKey key, SecureRandom random) throws InvalidKeyException {
+        engineInitSign(key);
+    }
+
+    @Override
+    protected void engineUpdate(byte b) throws SignatureException {
+        checkInitialized();
+        digest.update(b);
+    }
+
+    @Override
+    protected void engineUpdate(byte[] b, int off, int len) throws SignatureException {
+        checkInitialized();
+        digest.update(b, off, len);
+    }
+
+    @Override
+    protected void engineUpdate(ByteBuffer input) {
+        try {
+            checkInitialized();
+        } catch (SignatureException e) {
+            // engineUpdate(ByteBuffer) cannot throw SignatureException; same wrapping as SignatureSpi
+            throw new ProviderException(e);
+        }
+        digest.update(input);
+    }
+
+    @Override
+    protected byte[] engineSign() throws SignatureException {
+        if (privateKey == null) {
+            throw new SignatureException("Signature not initialized for signing");
+        }
+        digest.squeeze(mu, 0, mu.length);
+
+        byte[] signature = new byte[securityLevel.getSignatureSize()];
+        int result = engine.signMu(securityLevel, mu, privateKey.keyBytes(), false, signature);
+        restart();
+        if (result < 0) {
+            throw new SignatureException("Signing failed with error code: " + result);
+        }
+        return result == signature.length ? signature : Arrays.copyOf(signature, result);
+    }
+
+    @Override
+    protected boolean engineVerify(byte[] sigBytes) throws SignatureException {
+        if (publicKey == null) {
+            throw new SignatureException("Signature not initialized for verification");
+        }
+        digest.squeeze(mu, 0, mu.length);
+
+        int result = sigBytes != null && sigBytes.length == securityLevel.getSignatureSize()
+                ? engine.verifyMu(securityLevel, sigBytes, mu, publicKey.keyBytes())
+                : -1;
+        restart();
+        if (result == 0) {
+            return true;
+        }
+        if (result == -1) {
+            return false;
+        }
+        throw new SignatureException("Verification failed with error code: " + result);
+    }
+
+    @Override
+    protected void engineSetParameter(AlgorithmParameterSpec params) throws InvalidAlgorithmParameterException {
+        if (params != null) {
+            throw new InvalidAlgorithmParameterException("ML-DSA takes no parameters");
+        }
+    }
+
+    @Override
+    @Deprecated
+    protected void engineSetParameter(String param, Object value) {
+        throw new InvalidParameterException("ML-DSA takes no parameters");
+    }
+
+    @Override
+    @Deprecated
+    protected Object engineGetParameter(String param) {
+        throw new InvalidParameterException("ML-DSA takes no parameters");
+    }
+
+    /**
+     * Select the engine for the key's level, reusing the current hash when possible
+     */
+    private void prepare(MLDSA.SecurityLevel level) throws InvalidKeyException {
+        if (fixedLevel != null && level != fixedLevel) {
+            throw new InvalidKeyException("Expected an " + MLDSAKeyEncoding.algorithmName(fixedLevel)
+                    + " key, got " + MLDSAKeyEncoding.algorithmName(level));
+        }
+        MLDSAEngine selected;
+        try {
+            selected = MLDSA.getEngine(level);
+        } catch (MLDSA.MLDSAException e) {
+            throw new InvalidKeyException(e.getMessage(), e);
+        }
+        if (digest == null || level != securityLevel || selected != engine) {
+            digest = selected.newShake256(level);
+        }
+        securityLevel = level;
+        engine = selected;
+    }
+
+    /**
+     * Start a new message: absorb tr and the pure ML-DSA prefix 0 || ctxlen (empty context)
+     */
+    private void restart() {
+        digest.reset();
+        if (privateKey != null) {
+            digest.update(privateKey.keyBytes(), MLDSAPrivateKey.trOffset(), MLDSAParams.TRBYTES);
+        } else {
+            digest.update(publicKey.tr(engine), 0, MLDSAParams.TRBYTES);
+        }
+        digest.update((byte) 0);
+        digest.update((byte) 0);
+        Arrays.fill(mu, (byte) 0);
+    }
+
+    private void checkInitialized() throws SignatureException {
+        if (digest == null || (publicKey == null && privateKey == null)) {
+            throw new SignatureException("Signature not initialized");
+        }
+    }
+
+    public static final class MLDSA44 extends MLDSASignatureSpi {
+        public MLDSA44() {
+            super(MLDSA.SecurityLevel.LEVEL_44);
+        }
+    }
+
+    public static final class MLDSA65 extends MLDSASignatureSpi {
+        public MLDSA65() {
+            super(MLDSA.SecurityLevel.LEVEL_65);
+        }
+    }
+
+    public static final class MLDSA87 extends MLDSASignatureSpi {
+        public MLDSA87() {
+            super(MLDSA.SecurityLevel.LEVEL_87);
+        }
+    }
+}
@@ -0,0 +1,329 @@
+package com.mldsa;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+/**
+ * ML-DSA engine backed by the per-level JNI libraries (libmldsa44-jni.so, ...).
+ *
+ * A level's library is loaded the first time the level is used or probed with
+ * {@link #isAvailable(MLDSA.SecurityLevel)}.
+ */
+public final class NativeMLDSAEngine implements MLDSAEngine {
+
+    public static final String NAME = "native";
+
+    @Override
+    public String getName() {
+        return NAME;
+    }
+
+    @Override
+    public boolean isAvailable(MLDSA.SecurityLevel level) {
+        switch (level) {
+            case LEVEL_44:
+                return MLDSA44Native.LOADED;
+            case LEVEL_65:
+                return MLDSA65Native.LOADED;
+            case LEVEL_87:
+                return MLDSA87Native.LOADED;
+            default:
+                return false;
+        }
+    }
+
+    @Override
+    public int generateKeyPair(MLDSA.SecurityLevel level, byte[] publicKey, byte[] secretKey) {
+        switch (level) {
+            case LEVEL_44:
+                return MLDSA44Native.generateKeyPair(publicKey, secretKey);
+            case LEVEL_65:
+                return MLDSA65Native.generateKeyPair(publicKey, secretKey);
+            case LEVEL_87:
+                return MLDSA87Native.generateKeyPair(publicKey, secretKey);
+            default:
+                return -100; // Invalid parameter
+        }
+    }
+
+    @Override
+    public int generateKeyPairWithSeed(MLDSA.SecurityLevel level, byte[] seed, byte[] publicKey, byte[] secretKey) {
+        switch (level) {
+            case LEVEL_44:
+                return MLDSA44Native.generateKeyPairWithSeed(seed, publicKey, secretKey);
+            case LEVEL_65:
+                return MLDSA65Native.generateKeyPairWithSeed(seed, publicKey, secretKey);
+            case LEVEL_87:
+                return MLDSA87Native.generateKeyPairWithSeed(seed, publicKey, secretKey);
+            default:
+                return -100; // Invalid parameter
+        }
+    }
+
+    @Override
+    public int sign(MLDSA.SecurityLevel level, byte[] message, byte[] secretKey, byte[] context,
+                    boolean deterministic, byte[] signature) {
+        // The native side reads and writes fixed-size key and signature buffers
+        if (message == null || secretKey == null || secretKey.length < level.getSecretKeySize()
+                || signature == null || signature.length < level.getSignatureSize()
+                || (context != null && context.length > MLDSA.MAX_CONTEXT_LENGTH)) {
+            return -100; // Invalid parameter
+        }
+        switch (level) {
+            case LEVEL_44:
+                return MLDSA44Native.sign(message, secretKey, context, deterministic, signature);
+            case LEVEL_65:
+                return MLDSA65Native.sign(message, secretKey, context, deterministic, signature);
+            case LEVEL_87:
+                return MLDSA87Native.sign(message, secretKey, context, deterministic, signature);
+            default:
+                return -100; // Invalid parameter
+        }
+    }
+
+    @Override
+    public int verify(MLDSA.SecurityLevel level, byte[] signature, byte[] message, byte[] publicKey, byte[] context) {
+        if (signature == null || message == null || publicKey == null || publicKey.length != level.getPublicKeySize()
+                || (context != null && context.length > MLDSA.MAX_CONTEXT_LENGTH)) {
+            return -100; // Invalid parameter
+        }
+        if (signature.length != level.getSignatureSize()) {
+            return -1;
+        }
+        switch (level) {
+            case LEVEL_44:
+                return MLDSA44Native.verify(signature, message, publicKey, context);
+            case LEVEL_65:
+                return MLDSA65Native.verify(signature, message, publicKey, context);
+            case LEVEL_87:
+                return MLDSA87Native.verify(signature, message, publicKey, context);
+            default:
+                return -100; // Invalid parameter
+        }
+    }
+
+    @Override
+    public int signMu(MLDSA.SecurityLevel level, byte[] mu, byte[] secretKey, boolean deterministic,
+                      byte[] signature) {
+        if (mu == null || secretKey == null || secretKey.length != level.getSecretKeySize()
+                || signature == null || signature.length < level.getSignatureSize()) {
+            return -100; // Invalid parameter
+        }
+        switch (level) {
+            case LEVEL_44:
+                return MLDSA44Native.signMu(mu, secretKey, deterministic, signature);
+            case LEVEL_65:
+                return MLDSA65Native.signMu(mu, secretKey, deterministic, signature);
+            case LEVEL_87:
+                return MLDSA87Native.signMu(mu, secretKey, deterministic, signature);
+            default:
+                return -100; // Invalid parameter
+        }
+    }
+
+    @Override
+    public int verifyMu(MLDSA.SecurityLevel level, byte[] signature, byte[] mu, byte[] publicKey) {
+        if (signature == null || mu == null || publicKey == null || publicKey.length != level.getPublicKeySize()) {
+            return -100; // Invalid parameter
+        }
+        switch (level) {
+            case LEVEL_44:
+                return MLDSA44Native.verifyMu(signature, mu, publicKey);
+            case LEVEL_65:
+                return MLDSA65Native.verifyMu(signature, mu, publicKey);
+            case LEVEL_87:
+                return MLDSA87Native.verifyMu(signature, mu, publicKey);
+            default:
+                return -100; // Invalid parameter
+        }
+    }
+
+    @Override
+    public Shake256 newShake256(MLDSA.SecurityLevel level) {
+        return new NativeShake256(level);
+    }
+
+    /**
+     * SHAKE256 on the lib-native FIPS 202 code of one level's library.
+     *
+     * The sponge state lives in a Java array, so there is no native resource to
+     * release. Small updates are collected in a buffer to avoid a JNI call per
+     * byte; large ones are passed through in bounded slices so the pinned
+     * sections stay short. Direct buffers are hashed in place.
+     */
+    static final class NativeShake256 extends Shake256 {
+
+        private static final int BUFFER_BYTES = 512;
+        private static final int MAX_SLICE_BYTES = 64 * 1024;
+
+        private final MLDSA.SecurityLevel level;
+        private final byte[] state;
+        private final byte[] buffer = new byte[BUFFER_BYTES];
+        private int buffered;
+        private boolean squeezing;
+
+        NativeShake256(MLDSA.SecurityLevel level) {
+            this.level = level;
+            this.state = new byte[stateBytes(level)];
+            init(level, state);
+        }
+
+        @Override
+        public void update(byte b) {
+            if (buffered == BUFFER_BYTES) {
+                flush();
+            }
+            buffer[buffered++] = b;
+        }
+
+        @Override
+        public void update(byte[] input, int offset, int length) {
+            checkBounds(input.length, offset, length);
+            if (length <= BUFFER_BYTES - buffered) {
+                System.arraycopy(input, offset, buffer, buffered, length);
+                buffered += length;
+                return;
+            }
+            flush();
+            while (length > 0) {
+                int slice = Math.min(length, MAX_SLICE_BYTES);
+                absorb(level, state, input, offset, slice);
+                offset += slice;
+                length -= slice;
+            }
+        }
+
+        @Override
+        public void update(ByteBuffer input) {
+            if (!input.isDirect()) {
+                super.update(input);
+                return;
+            }
+            flush();
+            int position = input.position();
+            int limit = input.limit();
+            while (position < limit) {
+                int slice = Math.min(limit - position, MAX_SLICE_BYTES);
+                absorbDirect(level, state, input, position, slice);
+                position += slice;
+            }
+            input.position(limit);
+        }
+
+        @Override
+        public void squeeze(byte[] output, int offset, int length) {
+            checkBounds(output.length, offset, length);
+            if (!squeezing) {
+                flush();
+                finalizeState(level, state);
+                squeezing = true;
+            }
+            if (length > 0) {
+                squeeze(level, state, output, offset, length);
+            }
+        }
+
+        @Override
+        public void reset() {
+            Arrays.fill(buffer, (byte) 0);
+            buffered = 0;
+            squeezing = false;
+            init(level, state);
+        }
+
+        private void flush() {
+            if (buffered > 0) {
+                absorb(level, state, buffer, 0, buffered);
+                buffered = 0;
+            }
+        }
+
+        private static void checkBounds(int arrayLength, int offset, int length) {
+            if (offset < 0 || length < 0 || offset > arrayLength - length) {
+                throw new ArrayIndexOutOfBoundsException();
+            }
+        }
+
+        private static int stateBytes(MLDSA.SecurityLevel level) {
+            switch (level) {
+                case LEVEL_44:
+                    return MLDSA44Native.shake256StateBytes();
+                case LEVEL_65:
+                    return MLDSA65Native.shake256StateBytes();
+                default:
+                    return MLDSA87Native.shake256StateBytes();
+            }
+        }
+
+        private static void init(MLDSA.SecurityLevel level, byte[] state) {
+            switch (level) {
+                case LEVEL_44:
+                    MLDSA44Native.shake256Init(state);
+                    break;
+                case LEVEL_65:
+                    MLDSA65Native.shake256Init(state);
+                    break;
+                default:
+                    MLDSA87Native.shake256Init(state);
+                    break;
+            }
+        }
+
+        private static void absorb(MLDSA.SecurityLevel level, byte[] state, byte[] input, int offset, int length) {
+            switch (level) {
+                case LEVEL_44:
+                    MLDSA44Native.shake256Absorb(state, input, offset, length);
+                    break;
+                case LEVEL_65:
+                    MLDSA65Native.shake256Absorb(state, input, offset, length);
+                    break;
+                default:
+                    MLDSA87Native.shake256Absorb(state, input, offset, length);
+                    break;
+            }
+        }
+
+        private static void absorbDirect(MLDSA.SecurityLevel level, byte[] state, ByteBuffer input,
+                                         int offset, int length) {
+            switch (level) {
+                case LEVEL_44:
+                    MLDSA44Native.shake256AbsorbDirect(state, input, offset, length);
+                    break;
+                case LEVEL_65:
+                    MLDSA65Native.shake256AbsorbDirect(state, input, offset, length);
+                    break;
+                default:
+                    MLDSA87Native.shake256AbsorbDirect(state, input, offset, length);
+                    break;
+            }
+        }
+
+        private static void finalizeState(MLDSA.SecurityLevel level, byte[] state) {
+            switch (level) {
+                case LEVEL_44:
+                    MLDSA44Native.shake256Finalize(state);
+                    break;
+                case LEVEL_65:
+                    MLDSA65Native.shake256Finalize(state);
+                    break;
+                default:
+                    MLDSA87Native.shake256Finalize(state);
+                    break;
+            }
+        }
+
+        private static void squeeze(MLDSA.SecurityLevel level, byte[] state, byte[] output, int offset, int length) {
+            switch (level) {
+                case LEVEL_44:
+                    MLDSA44Native.shake256Squeeze(state, output, offset, length);
+                    break;
+                case LEVEL_65:
+                    MLDSA65Native.shake256Squeeze(state, output, offset, length);
+                    break;
+                default:
+                    MLDSA87Native.shake256Squeeze(state, output, offset, length);
+                    break;
+            }
+        }
+    }
+}
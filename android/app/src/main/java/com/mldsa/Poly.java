@@ -0,0 +1,320 @@
+package com.mldsa;
+
+/**
+ * Polynomial arithmetic over Z_q[X]/(X^256 + 1) for the pure-Java engine.
+ *
+ * Polynomials and vectors of polynomials are stored in flat int arrays; every
+ * routine takes the offset of the first coefficient, so vectors of length k are
+ * simply arrays of k * N ints and no per-polynomial objects are allocated.
+ */
+final class Poly {
+
+    static final int N = 256;
+    static final int Q = 8380417;
+    static final int D = 13;
+
+    // q^-1 mod 2^32
+    private static final int QINV = 58728449;
+    // mont^2 / 256 mod q, final scaling of the inverse NTT
+    private static final int INVNTT_F = 41978;
+    // 512th root of unity mod q
+    private static final int ROOT_OF_UNITY = 1753;
+
+    // Powers of the root of unity in Montgomery form, bit-reversed order
+    private static final int[] ZETAS = new int[N];
+
+    static {
+        long mont = (1L << 32) % Q;
+        for (int i = 0; i < N; i++) {
+            long zeta = mont;
+            int exponent = Integer.reverse(i) >>> 24;
+            for (int e = 0; e < exponent; e++) {
+                zeta = zeta * ROOT_OF_UNITY % Q;
+            }
+            ZETAS[i] = (int) (zeta > Q / 2 ? zeta - Q : zeta);
+        }
+        ZETAS[0] = 0;
+    }
+
+    private Poly() {
+    }
+
+    static int montgomeryReduce(long a) {
+        int t = (int) a * QINV;
+        return (int) ((a - (long) t * Q) >> 32);
+    }
+
+    static int reduce32(int a) {
+        int t = (a + (1 << 22)) >> 23;
+        return a - t * Q;
+    }
+
+    static int caddq(int a) {
+        return a + ((a >> 31) & Q);
+    }
+
+    /**
+     * Reduce to the centered representative in [-(q-1)/2, (q-1)/2]
+     */
+    static void center(int[] a, int off, int polys) {
+        int end = off + polys * N;
+        for (int i = off; i < end; i++) {
+            int t = caddq(reduce32(a[i]));
+            a[i] = t - (((Q - 1) / 2 - t) >> 31 & Q);
+        }
+    }
+
+    /**
+     * Reduce to the standard representative in [0, q)
+     */
+    static void freeze(int[] a, int off, int polys) {
+        int end = off + polys * N;
+        for (int i = off; i < end; i++) {
+            a[i] = caddq(reduce32(a[i]));
+        }
+    }
+
+    static void reduce(int[] a, int off, int polys) {
+        int end = off + polys * N;
+        for (int i = off; i < end; i++) {
+            a[i] = reduce32(a[i]);
+        }
+    }
+
+    static void add(int[] r, int roff, int[] a, int aoff, int polys) {
+        int count = polys * N;
+        for (int i = 0; i < count; i++) {
+            r[roff + i] += a[aoff + i];
+        }
+    }
+
+    static void sub(int[] r, int roff, int[] a, int aoff, int polys) {
+        int count = polys * N;
+        for (int i = 0; i < count; i++) {
+            r[roff + i] -= a[aoff + i];
+        }
+    }
+
+    static void shiftLeft(int[] a, int off, int polys) {
+        int end = off + polys * N;
+        for (int i = off; i < end; i++) {
+            a[i] <<= D;
+        }
+    }
+
+    /**
+     * Returns true if some coefficient of a centered polynomial vector has
+     * absolute value >= bound
+     */
+    static boolean exceedsNorm(int[] a, int off, int polys, int bound) {
+        int end = off + polys * N;
+        for (int i = off; i < end; i++) {
+            int t = a[i];
+            t -= (t >> 31) & (2 * t);
+            if (t >= bound) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Forward NTT, in place. Output is in bit-reversed order.
+     */
+    static void ntt(int[] a, int off) {
+        int k = 0;
+        for (int len = 128; len > 0; len >>= 1) {
+            for (int start = 0; start < N; start += 2 * len) {
+                long zeta = ZETAS[++k];
+                int end = off + start + len;
+                for (int j = off + start; j < end; j++) {
+                    int t = montgomeryReduce(zeta * a[j + len]);
+                    a[j + len] = a[j] - t;
+                    a[j] = a[j] + t;
+                }
+            }
+        }
+    }
+
+    /**
+     * Inverse NTT and multiplication by the Montgomery factor 2^32, in place
+     */
+    static void invnttTomont(int[] a, int off) {
+        int k = N;
+        for (int len = 1; len < N; len <<= 1) {
+            for (int start = 0; start < N; start += 2 * len) {
+                long zeta = -ZETAS[--k];
+                int end = off + start + len;
+                for (int j = off + start; j < end; j++) {
+                    int t = a[j];
+                    a[j] = t + a[j + len];
+                    a[j + len] = montgomeryReduce(zeta * (t - a[j + len]));
+                }
+            }
+        }
+        for (int j = off; j < off + N; j++) {
+            a[j] = montgomeryReduce((long) INVNTT_F * a[j]);
+        }
+    }
+
+    static void nttVec(int[] a, int off, int polys) {
+        for (int i = 0; i < polys; i++) {
+            ntt(a, off + i * N);
+        }
+    }
+
+    static void invnttTomontVec(int[] a, int off, int polys) {
+        for (int i = 0; i < polys; i++) {
+            invnttTomont(a, off + i * N);
+        }
+    }
+
+    /**
+     * r = a * b in the NTT domain, with Montgomery reduction
+     */
+    static void pointwiseMontgomery(int[] r, int roff, int[] a, int aoff, int[] b, int boff) {
+        for (int i = 0; i < N; i++) {
+            r[roff + i] = montgomeryReduce((long) a[aoff + i] * b[boff + i]);
+        }
+    }
+
+    /**
+     * r = A * v for a k x l matrix A and a vector v of length l, all in the NTT domain
+     */
+    static void matrixPointwiseMontgomery(int[] r, int[] mat, int[] v, int k, int l) {
+        for (int i = 0; i < k; i++) {
+            int roff = i * N;
+            pointwiseMontgomery(r, roff, mat, i * l * N, v, 0);
+            for (int j = 1; j < l; j++) {
+                int moff = (i * l + j) * N;
+                int voff = j * N;
+                for (int n = 0; n < N; n++) {
+                    r[roff + n] += montgomeryReduce((long) mat[moff + n] * v[voff + n]);
+                }
+            }
+        }
+    }
+
+    /**
+     * FIPS 204 Power2Round on a standard representative: returns a1 and stores a0 in place
+     */
+    static void power2Round(int[] a1, int[] a0, int off, int polys) {
+        int end = off + polys * N;
+        for (int i = off; i < end; i++) {
+            int a = a1[i];
+            int hi = (a + (1 << (D - 1)) - 1) >> D;
+            a0[i] = a - (hi << D);
+            a1[i] = hi;
+        }
+    }
+
+    /**
+     * FIPS 204 Decompose on standard representatives: a1 receives the high bits, a0 the
+     * centered low bits
+     */
+    static void decompose(int[] a1, int[] a0, int off, int polys, int gamma2) {
+        int end = off + polys * N;
+        for (int i = off; i < end; i++) {
+            int a = a1[i];
+            int hi = (a + 127) >> 7;
+            if (gamma2 == (Q - 1) / 32) {
+                hi = (hi * 1025 + (1 << 21)) >> 22;
+                hi &= 15;
+            } else {
+                hi = (hi * 11275 + (1 << 23)) >> 24;
+                hi ^= ((43 - hi) >> 31) & hi;
+            }
+            int lo = a - hi * 2 * gamma2;
+            lo -= (((Q - 1) / 2 - lo) >> 31) & Q;
+            a0[i] = lo;
+            a1[i] = hi;
+        }
+    }
+
+    /**
+     * Compute the hint bits for low part a0 and high part a1, storing them in h.
+     *
+     * @return The number of 1 bits
+     */
+    static int makeHint(int[] h, int[] a0, int[] a1, int off, int polys, int gamma2) {
+        int count = 0;
+        int end = off + polys * N;
+        for (int i = off; i < end; i++) {
+            int lo = a0[i];
+            int hint = (lo > gamma2 || lo < -gamma2 || (lo == -gamma2 && a1[i] != 0)) ? 1 : 0;
+            h[i] = hint;
+            count += hint;
+        }
+        return count;
+    }
+
+    /**
+     * Correct the high bits of standard representatives a according to hint h, in place
+     */
+    static void useHint(int[] a, int[] h, int off, int polys, int gamma2) {
+        int end = off + polys * N;
+        for (int i = off; i < end; i++) {
+            int value = a[i];
+            int hi = (value + 127) >> 7;
+            if (gamma2 == (Q - 1) / 32) {
+                hi = (hi * 1025 + (1 << 21)) >> 22;
+                hi &= 15;
+            } else {
+                hi = (hi * 11275 + (1 << 23)) >> 24;
+                hi ^= ((43 - hi) >> 31) & hi;
+            }
+            if (h[i] != 0) {
+                int lo = value - hi * 2 * gamma2;
+                lo -= (((Q - 1) / 2 - lo) >> 31) & Q;
+                if (gamma2 == (Q - 1) / 32) {
+                    hi = lo > 0 ? (hi + 1) & 15 : (hi - 1) & 15;
+                } else if (lo > 0) {
+                    hi = hi == 43 ? 0 : hi + 1;
+                } else {
+                    hi = hi == 0 ? 43 : hi - 1;
+                }
+            }
+            a[i] = hi;
+        }
+    }
+
+    /**
+     * Pack coefficients as little-endian bit strings of the given width, storing
+     * bias - a (or a itself when bias is 0)
+     */
+    static void pack(byte[] out, int outOff, int[] a, int aoff, int bits, int bias) {
+        long acc = 0;
+        int accBits = 0;
+        int o = outOff;
+        for (int i = 0; i < N; i++) {
+            int v = bias == 0 ? a[aoff + i] : bias - a[aoff + i];
+            acc |= (long) v << accBits;
+            accBits += bits;
+            while (accBits >= 8) {
+                out[o++] = (byte) acc;
+                acc >>>= 8;
+                accBits -= 8;
+            }
+        }
+    }
+
+    /**
+     * Inverse of {@link #pack}
+     */
+    static void unpack(int[] a, int aoff, byte[] in, int inOff, int bits, int bias) {
+        long acc = 0;
+        int accBits = 0;
+        int p = inOff;
+        int mask = (1 << bits) - 1;
+        for (int i = 0; i < N; i++) {
+            while (accBits < bits) {
+                acc |= (in[p++] & 0xFFL) << accBits;
+                accBits += 8;
+            }
+            int v = (int) acc & mask;
+            acc >>>= bits;
+            accBits -= bits;
+            a[aoff + i] = bias == 0 ? v : bias - v;
+        }
+    }
+}
@@ -0,0 +1,44 @@
+package com.mldsa;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Incremental SHAKE256 (FIPS 202) provided by an {@link MLDSAEngine}.
+ *
+ * Used to hash messages that arrive in pieces, e.g. through
+ * {@link java.security.Signature#update}, without buffering them. The first
+ * {@link #squeeze} call ends the absorbing phase; {@link #reset()} starts a new
+ * hash. Instances are not thread-safe.
+ */
+public abstract class Shake256 {
+
+    public abstract void update(byte b);
+
+    public abstract void update(byte[] input, int offset, int length);
+
+    public void update(byte[] input) {
+        update(input, 0, input.length);
+    }
+
+    /**
+     * Absorb the remaining bytes of {@code input}, advancing its position to its limit
+     */
+    public void update(ByteBuffer input) {
+        if (input.hasArray()) {
+            int length = input.remaining();
+            update(input.array(), input.arrayOffset() + input.position(), length);
+            input.position(input.position() + length);
+            return;
+        }
+        byte[] chunk = new byte[Math.min(input.remaining(), 8192)];
+        while (input.hasRemaining()) {
+            int length = Math.min(input.remaining(), chunk.length);
+            input.get(chunk, 0, length);
+            update(chunk, 0, length);
+        }
+    }
+
+    public abstract void squeeze(byte[] output, int offset, int length);
+
+    public abstract void reset();
+}
@@ -0,0 +1,122 @@
+package com.mldsa;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Bounded, thread-safe memo of deterministic ML-DSA signatures.
+ *
+ * Entries are keyed by (security level, key id, context, message digest), where the
+ * key id and message digest are SHA-256 hashes of the secret key and the message.
+ * Only deterministic signatures are memoized: re-signing the same payload with the
+ * same key always yields the same bytes, so a cached signature is indistinguishable
+ * from a freshly computed one. The least recently used entry is evicted once the
+ * cache holds {@code maxEntries} signatures.
+ */
+public class SignatureCache {
+
+    private final int maxEntries;
+    private final LinkedHashMap<Key, byte[]> entries;
+
+    /**
+     * Create a cache holding at most {@code maxEntries} signatures
+     *
+     * @param maxEntries Maximum number of memoized signatures (must be positive)
+     */
+    public SignatureCache(final int maxEntries) {
+        if (maxEntries <= 0) {
+            throw new IllegalArgumentException("maxEntries must be positive, got " + maxEntries);
+        }
+        this.maxEntries = maxEntries;
+        this.entries = new LinkedHashMap<Key, byte[]>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Key, byte[]> eldest) {
+                return size() > SignatureCache.this.maxEntries;
+            }
+        };
+    }
+
+    public int getMaxEntries() {
+        return maxEntries;
+    }
+
+    /**
+     * Number of signatures currently memoized
+     */
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    /**
+     * Drop all memoized signatures
+     */
+    public synchronized void clear() {
+        entries.clear();
+    }
+
+    static Key key(MLDSA.SecurityLevel level, byte[] secretKey, byte[] context, byte[] message) {
+        return new Key(level.getValue(), sha256(secretKey),
+                context != null ? context.clone() : new byte[0], sha256(message));
+    }
+
+    synchronized byte[] get(Key key) {
+        byte[] signature = entries.get(key);
+        return signature != null ? signature.clone() : null;
+    }
+
+    synchronized void put(Key key, byte[] signature) {
+        entries.put(key, signature.clone());
+    }
+
+    private static byte[] sha256(byte[] data) {
+        try {
+            return MessageDigest.getInstance("SHA-256").digest(data);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    static final class Key {
+        private final int level;
+        private final byte[] keyId;
+        private final byte[] context;
+        private final byte[] messageDigest;
+        private final int hash;
+
+        Key(int level, byte[] keyId, byte[] context, byte[] messageDigest) {
+            this.level = level;
+            this.keyId = keyId;
+            this.context = context;
+            this.messageDigest = messageDigest;
+
+            int h = level;
+            h = 31 * h + Arrays.hashCode(keyId);
+            h = 31 * h + Arrays.hashCode(context);
+            h = 31 * h + Arrays.hashCode(messageDigest);
+            this.hash = h;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof Key)) {
+                return false;
+            }
+            Key other = (Key) o;
+            return level == other.level
+                    && Arrays.equals(keyId, other.keyId)
+                    && Arrays.equals(context, other.context)
+                    && Arrays.equals(messageDigest, other.messageDigest);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+}
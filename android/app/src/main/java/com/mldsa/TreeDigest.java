@@ -0,0 +1,364 @@
+package com.mldsa;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Parallel tree-hashed SHAKE256 digest for large pre-hashed inputs.
+ *
+ * The input is split into fixed-size chunks that are hashed independently on a
+ * fork-join pool, so hashing scales with cores instead of being bound to a single
+ * SHAKE256 stream. The tree has one level of leaves under a root:
+ * <pre>
+ *   leaf_i = SHAKE256(0x00 || LE64(i) || chunk_i, 64)
+ *   root   = SHAKE256(0x01 || LE64(chunkSize) || LE64(length) || leaf_0 || ... || leaf_n-1, 64)
+ * </pre>
+ * The root depends only on the input bytes and the chunk size, never on the
+ * number of threads or on how the input is split into buffers, so signer and
+ * verifier must agree on the chunk size only. Chunks are hashed with the
+ * SHAKE256 of the engine serving the given security level, i.e. the native
+ * Keccak when that level's library is available.
+ *
+ * Signatures over a root are HashML-DSA style pre-hash signatures bound to
+ * {@link #identifier()}, so they never verify as signatures over the root as a
+ * plain message.
+ *
+ * Instances are immutable and thread-safe.
+ *
+ * @see MLDSA#sign(FileChannel, byte[], byte[], MLDSA.SecurityLevel, TreeDigest)
+ */
+public final class TreeDigest {
+
+    public static final int DEFAULT_CHUNK_SIZE = 1 << 20;
+    public static final int DIGEST_BYTES = 64;
+
+    private static final byte LEAF_DOMAIN = 0x00;
+    private static final byte ROOT_DOMAIN = 0x01;
+
+    // Pre-hash identifier prefix; not a DER OID (0x06), so it cannot collide with HashML-DSA
+    private static final byte[] IDENTIFIER_PREFIX = "mldsa-tree-shake256".getBytes(StandardCharsets.US_ASCII);
+
+    // Engine used when no security level is given
+    private static final MLDSA.SecurityLevel DEFAULT_LEVEL = MLDSA.SecurityLevel.LEVEL_65;
+
+    // Per-thread read buffer for FileChannel inputs, shared by all instances
+    private static final int READ_BUFFER_SIZE = 256 * 1024;
+    private static final ThreadLocal<ByteBuffer> READ_BUFFERS = new ThreadLocal<ByteBuffer>() {
+        @Override
+        protected ByteBuffer initialValue() {
+            return ByteBuffer.allocateDirect(READ_BUFFER_SIZE);
+        }
+    };
+
+    private final int chunkSize;
+    private final ForkJoinPool pool;
+
+    /**
+     * Tree digest with 1 MiB chunks on a shared pool sized to the available processors
+     */
+    public TreeDigest() {
+        this(DEFAULT_CHUNK_SIZE);
+    }
+
+    public TreeDigest(int chunkSize) {
+        this(chunkSize, null);
+    }
+
+    /**
+     * @param chunkSize Leaf size in bytes; part of the digest definition
+     * @param pool Pool to hash chunks on, or null for the shared default pool
+     */
+    public TreeDigest(int chunkSize, ForkJoinPool pool) {
+        if (chunkSize <= 0) {
+            throw new IllegalArgumentException("chunkSize must be positive, got " + chunkSize);
+        }
+        this.chunkSize = chunkSize;
+        this.pool = pool;
+    }
+
+    public int getChunkSize() {
+        return chunkSize;
+    }
+
+    /**
+     * Pre-hash identifier: "mldsa-tree-shake256" || LE64(chunkSize). Takes the
+     * place of the hash function OID in the HashML-DSA message M'.
+     */
+    public byte[] identifier() {
+        byte[] id = new byte[IDENTIFIER_PREFIX.length + 8];
+        System.arraycopy(IDENTIFIER_PREFIX, 0, id, 0, IDENTIFIER_PREFIX.length);
+        for (int i = 0; i < 8; i++) {
+            id[IDENTIFIER_PREFIX.length + i] = (byte) ((long) chunkSize >>> (8 * i));
+        }
+        return id;
+    }
+
+    /**
+     * Digest the whole file, read with positional reads (the channel position is not changed).
+     * Hashes on the engine for ML-DSA-65; see {@link #digest(FileChannel, MLDSA.SecurityLevel)}.
+     */
+    public byte[] digest(FileChannel channel) throws MLDSA.MLDSAException, IOException {
+        return digest(channel, DEFAULT_LEVEL);
+    }
+
+    /**
+     * Digest the whole file on the engine serving {@code level}, so no other
+     * level's native library is loaded
+     */
+    public byte[] digest(FileChannel channel, MLDSA.SecurityLevel level)
+            throws MLDSA.MLDSAException, IOException {
+        return digest(new ChannelSource(channel, channel.size()), MLDSA.getEngine(level), level);
+    }
+
+    /**
+     * Digest the concatenation of the remaining bytes of {@code buffers}
+     * (buffer positions are not changed). Hashes on the engine for ML-DSA-65.
+     */
+    public byte[] digest(ByteBuffer... buffers) throws MLDSA.MLDSAException {
+        return digest(buffers, DEFAULT_LEVEL);
+    }
+
+    /**
+     * Digest the remaining bytes of {@code buffers} on the engine serving {@code level}
+     */
+    public byte[] digest(ByteBuffer[] buffers, MLDSA.SecurityLevel level) throws MLDSA.MLDSAException {
+        try {
+            return digest(new BufferSource(buffers), MLDSA.getEngine(level), level);
+        } catch (IOException e) {
+            // Buffers are never read through I/O
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Check a file against an expected root digest
+     */
+    public boolean verify(byte[] expected, FileChannel channel) throws MLDSA.MLDSAException, IOException {
+        return expected != null && MessageDigest.isEqual(expected, digest(channel));
+    }
+
+    /**
+     * Check buffers against an expected root digest
+     */
+    public boolean verify(byte[] expected, ByteBuffer... buffers) throws MLDSA.MLDSAException {
+        return expected != null && MessageDigest.isEqual(expected, digest(buffers));
+    }
+
+    private byte[] digest(Source source, MLDSAEngine engine, MLDSA.SecurityLevel level) throws IOException {
+        long length = source.length();
+        long chunks = (length + chunkSize - 1) / chunkSize;
+        if (chunks > Integer.MAX_VALUE / DIGEST_BYTES) {
+            throw new IllegalArgumentException("Input too large for chunk size " + chunkSize);
+        }
+
+        byte[] leaves = new byte[(int) chunks * DIGEST_BYTES];
+        if (chunks == 1) {
+            hashLeaf(source, 0, length, leaves, engine.newShake256(level));
+        } else if (chunks > 1) {
+            LeafTask task = new LeafTask(source, length, leaves, engine, level, 0, (int) chunks);
+            try {
+                (pool != null ? pool : DefaultPool.INSTANCE).invoke(task);
+            } catch (RuntimeException e) {
+                IOException cause = findIOException(e);
+                if (cause != null) {
+                    throw cause;
+                }
+                throw e;
+            }
+        }
+
+        Shake256 h = engine.newShake256(level);
+        h.update(ROOT_DOMAIN);
+        absorbLong(h, chunkSize);
+        absorbLong(h, length);
+        h.update(leaves, 0, leaves.length);
+
+        byte[] root = new byte[DIGEST_BYTES];
+        h.squeeze(root, 0, DIGEST_BYTES);
+        return root;
+    }
+
+    private void hashLeaf(Source source, int index, long length, byte[] leaves, Shake256 h) throws IOException {
+        long start = (long) index * chunkSize;
+        int chunkLength = (int) Math.min(chunkSize, length - start);
+
+        h.update(LEAF_DOMAIN);
+        absorbLong(h, index);
+        source.absorb(h, start, chunkLength);
+        h.squeeze(leaves, index * DIGEST_BYTES, DIGEST_BYTES);
+    }
+
+    private static void absorbLong(Shake256 h, long value) {
+        for (int i = 0; i < 8; i++) {
+            h.update((byte) (value >>> (8 * i)));
+        }
+    }
+
+    private static IOException findIOException(Throwable t) {
+        for (Throwable cause = t; cause != null; cause = cause.getCause()) {
+            if (cause instanceof IOException) {
+                return (IOException) cause;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Hashes the leaves [from, to) by recursive halving
+     */
+    private final class LeafTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final Source source;
+        private final long length;
+        private final byte[] leaves;
+        private final MLDSAEngine engine;
+        private final MLDSA.SecurityLevel level;
+        private final int from;
+        private final int to;
+
+        LeafTask(Source source, long length, byte[] leaves, MLDSAEngine engine, MLDSA.SecurityLevel level,
+                 int from, int to) {
+            this.source = source;
+            this.length = length;
+            this.leaves = leaves;
+            this.engine = engine;
+            this.level = level;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from == 1) {
+                try {
+                    hashLeaf(source, from, length, leaves, engine.newShake256(level));
+                } catch (IOException e) {
+                    throw new LeafException(e);
+                }
+                return;
+            }
+            int mid = (from + to) >>> 1;
+            invokeAll(new LeafTask(source, length, leaves, engine, level, from, mid),
+                    new LeafTask(source, length, leaves, engine, level, mid, to));
+        }
+    }
+
+    private static final class LeafException extends RuntimeException {
+        private static final long serialVersionUID = 1L;
+
+        LeafException(IOException cause) {
+            super(cause);
+        }
+    }
+
+    private interface Source {
+        long length();
+
+        void absorb(Shake256 h, long start, int length) throws IOException;
+    }
+
+    private static final class ChannelSource implements Source {
+        private final FileChannel channel;
+        private final long length;
+
+        ChannelSource(FileChannel channel, long length) {
+            this.channel = channel;
+            this.length = length;
+        }
+
+        @Override
+        public long length() {
+            return length;
+        }
+
+        @Override
+        public void absorb(Shake256 h, long start, int length) throws IOException {
+            ByteBuffer buffer = READ_BUFFERS.get();
+            long position = start;
+            long end = start + length;
+            while (position < end) {
+                buffer.clear();
+                buffer.limit((int) Math.min(buffer.capacity(), end - position));
+                while (buffer.hasRemaining()) {
+                    if (channel.read(buffer, position + buffer.position()) < 0) {
+                        throw new EOFException("File shrank while hashing at offset " + (position + buffer.position()));
+                    }
+                }
+                buffer.flip();
+                position += buffer.remaining();
+                h.update(buffer);
+            }
+        }
+    }
+
+    private static final class BufferSource implements Source {
+        private final ByteBuffer[] buffers;
+        // offsets[i] = number of bytes in buffers[0..i-1]
+        private final long[] offsets;
+
+        BufferSource(ByteBuffer[] buffers) {
+            this.buffers = new ByteBuffer[buffers.length];
+            this.offsets = new long[buffers.length + 1];
+            for (int i = 0; i < buffers.length; i++) {
+                this.buffers[i] = buffers[i].duplicate();
+                offsets[i + 1] = offsets[i] + buffers[i].remaining();
+            }
+        }
+
+        @Override
+        public long length() {
+            return offsets[buffers.length];
+        }
+
+        @Override
+        public void absorb(Shake256 h, long start, int length) {
+            int index = bufferAt(start);
+            long position = start;
+            long end = start + length;
+            while (position < end) {
+                ByteBuffer buffer = buffers[index];
+                int from = buffer.position() + (int) (position - offsets[index]);
+                int take = (int) Math.min(end - position, offsets[index + 1] - position);
+
+                ByteBuffer slice = buffer.duplicate();
+                slice.limit(from + take);
+                slice.position(from);
+                h.update(slice);
+
+                position += take;
+                index++;
+            }
+        }
+
+        /**
+         * Index of the buffer containing the byte at {@code position}, skipping empty buffers
+         */
+        private int bufferAt(long position) {
+            int lo = 0;
+            int hi = buffers.length - 1;
+            while (lo < hi) {
+                int mid = (lo + hi + 1) >>> 1;
+                if (offsets[mid] <= position) {
+                    lo = mid;
+                } else {
+                    hi = mid - 1;
+                }
+            }
+            return lo;
+        }
+    }
+
+    /**
+     * Shared pool, created on first use
+     */
+    private static final class DefaultPool {
+        static final ForkJoinPool INSTANCE = new ForkJoinPool(Runtime.getRuntime().availableProcessors());
+    }
+}
@@ -0,0 +1,154 @@
+package com.mldsa.loadgen;
+
+import com.mldsa.MLDSA;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Command line configuration of a load generation run.
+ *
+ * Options use the form {@code --name=value}:
+ * <pre>
+ *   --threads=1,2,4,8,16,32,64   thread counts to sweep
+ *   --levels=44,65,87            parameter sets to sweep
+ *   --mix=keygen:1,sign:4,verify:16
+ *                                relative operation weights
+ *   --sizes=64:70,1024:25,65536:5
+ *                                message size distribution (bytes:weight)
+ *   --duration=10                measured seconds per configuration
+ *   --warmup=3                   warm-up seconds per configuration
+ *   --engine=native              native (default, fails if a level has no native library),
+ *                                auto (native where available) or java
+ *   --tree=256                   also measure TreeDigest throughput over this many MiB
+ *   --csv=results.csv            optional CSV output
+ * </pre>
+ */
+final class LoadConfig {
+
+    static final int OP_KEYGEN = 0;
+    static final int OP_SIGN = 1;
+    static final int OP_VERIFY = 2;
+    static final String[] OP_NAMES = {"keygen", "sign", "verify"};
+
+    int[] threads = {1, 2, 4, 8, 16, 32, 64};
+    List<MLDSA.SecurityLevel> levels = new ArrayList<MLDSA.SecurityLevel>();
+    int[] opWeights = {1, 4, 16};
+    int[] messageSizes = {64, 1024, 65536};
+    int[] messageWeights = {70, 25, 5};
+    int durationSeconds = 10;
+    int warmupSeconds = 3;
+    String engine = "native";
+    int treeMegabytes;
+    String csvPath;
+
+    static LoadConfig parse(String[] args) {
+        LoadConfig config = new LoadConfig();
+        config.levels.add(MLDSA.SecurityLevel.LEVEL_44);
+        config.levels.add(MLDSA.SecurityLevel.LEVEL_65);
+        config.levels.add(MLDSA.SecurityLevel.LEVEL_87);
+
+        for (String arg : args) {
+            if (!arg.startsWith("--") || arg.indexOf('=') < 0) {
+                throw new IllegalArgumentException("Expected --name=value, got: " + arg);
+            }
+            String name = arg.substring(2, arg.indexOf('='));
+            String value = arg.substring(arg.indexOf('=') + 1);
+
+            if (name.equals("threads")) {
+                config.threads = parseInts(value);
+            } else if (name.equals("levels")) {
+                config.levels.clear();
+                for (int level : parseInts(value)) {
+                    config.levels.add(MLDSA.SecurityLevel.fromValue(level));
+                }
+            } else if (name.equals("mix")) {
+                config.opWeights = new int[OP_NAMES.length];
+                for (String part : value.split(",")) {
+                    String[] pair = part.split(":");
+                    config.opWeights[opIndex(pair[0].trim())] = Integer.parseInt(pair[1].trim());
+                }
+            } else if (name.equals("sizes")) {
+                String[] parts = value.split(",");
+                config.messageSizes = new int[parts.length];
+                config.messageWeights = new int[parts.length];
+                for (int i = 0; i < parts.length; i++) {
+                    String[] pair = parts[i].split(":");
+                    config.messageSizes[i] = Integer.parseInt(pair[0].trim());
+                    config.messageWeights[i] = pair.length > 1 ? Integer.parseInt(pair[1].trim()) : 1;
+                }
+            } else if (name.equals("duration")) {
+                config.durationSeconds = Integer.parseInt(value);
+            } else if (name.equals("warmup")) {
+                config.warmupSeconds = Integer.parseInt(value);
+            } else if (name.equals("engine")) {
+                if (!value.equals("native") && !value.equals("auto") && !value.equals("java")) {
+                    throw new IllegalArgumentException("Unknown engine: " + value);
+                }
+                config.engine = value;
+            } else if (name.equals("tree")) {
+                config.treeMegabytes = Integer.parseInt(value);
+            } else if (name.equals("csv")) {
+                config.csvPath = value;
+            } else {
+                throw new IllegalArgumentException("Unknown option: --" + name);
+            }
+        }
+
+        if (sum(config.opWeights) <= 0) {
+            throw new IllegalArgumentException("Operation mix must have a positive weight");
+        }
+        if (sum(config.messageWeights) <= 0) {
+            throw new IllegalArgumentException("Message size distribution must have a positive weight");
+        }
+        return config;
+    }
+
+    String describeMix() {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < OP_NAMES.length; i++) {
+            if (i > 0) {
+                sb.append(',');
+            }
+            sb.append(OP_NAMES[i]).append(':').append(opWeights[i]);
+        }
+        return sb.toString();
+    }
+
+    String describeSizes() {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < messageSizes.length; i++) {
+            if (i > 0) {
+                sb.append(',');
+            }
+            sb.append(messageSizes[i]).append(':').append(messageWeights[i]);
+        }
+        return sb.toString();
+    }
+
+    static int sum(int[] values) {
+        int total = 0;
+        for (int value : values) {
+            total += value;
+        }
+        return total;
+    }
+
+    private static int opIndex(String name) {
+        for (int i = 0; i < OP_NAMES.length; i++) {
+            if (OP_NAMES[i].equals(name)) {
+                return i;
+            }
+        }
+        throw new IllegalArgumentException("Unknown operation: " + name);
+    }
+
+    private static int[] parseInts(String value) {
+        String[] parts = value.split(",");
+        int[] result = new int[parts.length];
+        for (int i = 0; i < parts.length; i++) {
+            result[i] = Integer.parseInt(parts[i].trim());
+        }
+        return result;
+    }
+}
@@ -0,0 +1,525 @@
+package com.mldsa.loadgen;
+
+import com.mldsa.MLDSA;
+import com.mldsa.TreeDigest;
+
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.management.OperatingSystemMXBean;
+import java.lang.management.ThreadMXBean;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Multi-threaded load generator for {@link MLDSA}.
+ *
+ * For every (level, thread count) configuration it runs a mixed keygen/sign/verify
+ * workload over a message size distribution and reports throughput, scaling
+ * relative to the smallest thread count, per-operation latency percentiles,
+ * allocation rate, GC time and process CPU usage. The numbers are meant to
+ * expose scaling cliffs that single-threaded benchmarks miss, e.g. GC pressure
+ * from JNI array copies, RNG file descriptor churn or cache contention.
+ *
+ * By default every level must run on the native engine (host builds of the
+ * libmldsa<level>-jni libraries); the run stops before measuring anything if a
+ * level would fall back to the pure-Java engine. A configuration in which any
+ * operation throws is aborted rather than reported as reduced throughput.
+ *
+ * See {@link LoadConfig} for the options.
+ */
+public final class LoadGenerator {
+
+    private static final int KEYS_PER_LEVEL = 4;
+    private static final int MESSAGES_PER_SIZE = 8;
+    private static final double[] PERCENTILES = {50, 90, 99, 99.9};
+
+    private static final int PHASE_WARMUP = 0;
+    private static final int PHASE_MEASURE = 1;
+    private static final int PHASE_STOP = 2;
+
+    private LoadGenerator() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        LoadConfig config;
+        try {
+            config = LoadConfig.parse(args);
+        } catch (IllegalArgumentException e) {
+            System.err.println(e.getMessage());
+            System.err.println("Usage: LoadGenerator [--threads=1,2,4] [--levels=44,65,87] "
+                    + "[--mix=keygen:1,sign:4,verify:16] [--sizes=64:70,1024:25,65536:5] "
+                    + "[--duration=10] [--warmup=3] [--engine=native|auto|java] [--tree=MiB] [--csv=file]");
+            System.exit(2);
+            return;
+        }
+
+        if ("java".equals(config.engine)) {
+            MLDSA.setEngine(MLDSA.javaEngine());
+        } else if ("native".equals(config.engine)) {
+            MLDSA.setEngine(MLDSA.nativeEngine());
+        }
+
+        // Fail fast instead of measuring the wrong engine
+        for (MLDSA.SecurityLevel level : config.levels) {
+            try {
+                MLDSA.getEngine(level);
+            } catch (MLDSA.MLDSAException e) {
+                System.err.println(e.getMessage());
+                System.err.println("Run ./gradlew :loadgen:runNative to build the host JNI libraries and put them on "
+                        + "java.library.path, or pass --engine=java to measure the pure-Java engine");
+                System.exit(1);
+                return;
+            }
+        }
+
+        System.out.printf(Locale.ROOT, "JVM %s %s, %d cores, max heap %d MB%n",
+                System.getProperty("java.vm.name"), System.getProperty("java.version"),
+                Runtime.getRuntime().availableProcessors(), Runtime.getRuntime().maxMemory() >> 20);
+        System.out.printf(Locale.ROOT, "mix %s, sizes %s, %ds warm-up + %ds measured per configuration%n%n",
+                config.describeMix(), config.describeSizes(), config.warmupSeconds, config.durationSeconds);
+
+        PrintWriter csv = null;
+        if (config.csvPath != null) {
+            csv = new PrintWriter(new FileWriter(config.csvPath));
+            csv.println("level,engine,threads,op,ops_per_sec,p50_us,p90_us,p99_us,p999_us,max_us,"
+                    + "total_ops_per_sec,speedup,alloc_mb_per_sec,gc_ms_per_sec,gc_count,cpu_percent,errors");
+        }
+
+        try {
+            for (MLDSA.SecurityLevel level : config.levels) {
+                String engine = MLDSA.getEngine(level).getName();
+                Fixture fixture = Fixture.create(level, config);
+                List<Result> results = new ArrayList<Result>();
+
+                for (int threads : config.threads) {
+                    Result result = run(config, fixture, threads);
+                    if (result.failure != null) {
+                        System.out.printf(Locale.ROOT, "ML-DSA-%d [%s] threads=%-3d ABORTED after %d error(s): %s%n",
+                                level.getValue(), engine, threads, result.errors, result.failure);
+                        result.failure.printStackTrace(System.out);
+                        break;
+                    }
+                    results.add(result);
+                    print(level, engine, result, results.get(0));
+                    if (csv != null) {
+                        writeCsv(csv, level, engine, result, results.get(0));
+                        csv.flush();
+                    }
+                }
+
+                if (!results.isEmpty()) {
+                    printScaling(level, engine, results);
+                }
+
+                if (config.treeMegabytes > 0) {
+                    runTreeDigest(config, level, engine);
+                }
+            }
+        } finally {
+            if (csv != null) {
+                csv.close();
+            }
+        }
+    }
+
+    private static Result run(LoadConfig config, Fixture fixture, int threads) throws InterruptedException {
+        final Phase phase = new Phase();
+        Worker[] workers = new Worker[threads];
+        Thread[] threadObjects = new Thread[threads];
+        long[] threadIds = new long[threads];
+
+        for (int i = 0; i < threads; i++) {
+            workers[i] = new Worker(config, fixture, phase, 0x5EED0000L + i);
+            threadObjects[i] = new Thread(workers[i], "loadgen-" + i);
+            threadObjects[i].setDaemon(true);
+            threadObjects[i].start();
+            threadIds[i] = threadObjects[i].getId();
+        }
+
+        phase.await(config.warmupSeconds * 1000L);
+
+        Snapshot before = Snapshot.take(threadIds);
+        long start = System.nanoTime();
+        phase.advance(PHASE_MEASURE);
+
+        phase.await(config.durationSeconds * 1000L);
+
+        phase.advance(PHASE_STOP);
+        long elapsed = System.nanoTime() - start;
+        Snapshot after = Snapshot.take(threadIds);
+
+        for (Thread thread : threadObjects) {
+            thread.join();
+        }
+
+        Result result = new Result(threads, elapsed);
+        result.failure = phase.failure;
+        for (Worker worker : workers) {
+            for (int op = 0; op < LoadConfig.OP_NAMES.length; op++) {
+                result.latencies[op].add(worker.latencies[op]);
+            }
+            result.errors += worker.errors;
+        }
+        result.allocatedBytes = before.allocatedBytes >= 0 && after.allocatedBytes >= 0
+                ? after.allocatedBytes - before.allocatedBytes : -1;
+        result.gcMillis = after.gcMillis - before.gcMillis;
+        result.gcCount = after.gcCount - before.gcCount;
+        result.cpuNanos = before.cpuNanos >= 0 && after.cpuNanos >= 0 ? after.cpuNanos - before.cpuNanos : -1;
+        return result;
+    }
+
+    /**
+     * TreeDigest throughput over a direct buffer for each thread count
+     */
+    private static void runTreeDigest(LoadConfig config, MLDSA.SecurityLevel level, String engine)
+            throws MLDSA.MLDSAException {
+        long size = (long) config.treeMegabytes << 20;
+        ByteBuffer input = ByteBuffer.allocateDirect((int) Math.min(size, Integer.MAX_VALUE));
+        byte[] block = new byte[1 << 16];
+        Random random = new Random(level.getValue());
+        while (input.hasRemaining()) {
+            random.nextBytes(block);
+            input.put(block, 0, Math.min(block.length, input.remaining()));
+        }
+        input.flip();
+
+        System.out.printf(Locale.ROOT, "TreeDigest ML-DSA-%d [%s], %d MiB%n", level.getValue(), engine,
+                input.capacity() >> 20);
+        System.out.println("  threads       MB/s   speedup");
+        double baseline = 0;
+        for (int threads : config.threads) {
+            ForkJoinPool pool = new ForkJoinPool(threads);
+            try {
+                TreeDigest digest = new TreeDigest(TreeDigest.DEFAULT_CHUNK_SIZE, pool);
+                // Warm up before measuring
+                digest.digest(new ByteBuffer[]{input}, level);
+
+                long start = System.nanoTime();
+                digest.digest(new ByteBuffer[]{input}, level);
+                double megabytesPerSecond = input.capacity() / ((System.nanoTime() - start) / 1e9) / (1 << 20);
+                if (baseline == 0) {
+                    baseline = megabytesPerSecond;
+                }
+                System.out.printf(Locale.ROOT, "  %7d %10.0f   x%6.2f%n", threads, megabytesPerSecond,
+                        megabytesPerSecond / baseline);
+            } finally {
+                pool.shutdown();
+            }
+        }
+        System.out.println();
+    }
+
+    private static void print(MLDSA.SecurityLevel level, String engine, Result result, Result baseline) {
+        double seconds = result.elapsedNanos / 1e9;
+        System.out.printf(Locale.ROOT,
+                "ML-DSA-%d [%s] threads=%-3d %10.0f ops/s  speedup x%.2f  eff %3.0f%%  "
+                        + "alloc %s  gc %.1f ms/s (%d)  cpu %s%s%n",
+                level.getValue(), engine, result.threads, result.totalOpsPerSecond(),
+                result.speedup(baseline), 100 * result.efficiency(baseline),
+                result.allocatedBytes >= 0
+                        ? String.format(Locale.ROOT, "%.1f MB/s", result.allocatedBytes / seconds / (1 << 20))
+                        : "n/a",
+                result.gcMillis / seconds, result.gcCount,
+                result.cpuNanos >= 0
+                        ? String.format(Locale.ROOT, "%.0f%%", 100.0 * result.cpuNanos / result.elapsedNanos)
+                        : "n/a",
+                result.errors > 0 ? "  ERRORS " + result.errors : "");
+
+        for (int op = 0; op < LoadConfig.OP_NAMES.length; op++) {
+            LatencyHistogram histogram = result.latencies[op];
+            if (histogram.count() == 0) {
+                continue;
+            }
+            StringBuilder sb = new StringBuilder();
+            sb.append(String.format(Locale.ROOT, "    %-7s %10.0f ops/s ", LoadConfig.OP_NAMES[op],
+                    histogram.count() / seconds));
+            for (double percentile : PERCENTILES) {
+                sb.append(String.format(Locale.ROOT, " p%-4s %8.1f us", formatPercentile(percentile),
+                        histogram.percentile(percentile) / 1e3));
+            }
+            sb.append(String.format(Locale.ROOT, "  max %9.1f us", histogram.max() / 1e3));
+            System.out.println(sb);
+        }
+    }
+
+    private static void printScaling(MLDSA.SecurityLevel level, String engine, List<Result> results) {
+        Result baseline = results.get(0);
+        System.out.printf(Locale.ROOT, "%nScaling ML-DSA-%d [%s]%n", level.getValue(), engine);
+        System.out.println("  threads      ops/s   speedup  efficiency  gc ms/s");
+        for (Result result : results) {
+            System.out.printf(Locale.ROOT, "  %7d %10.0f   x%6.2f     %5.1f%%  %7.1f%n",
+                    result.threads, result.totalOpsPerSecond(), result.speedup(baseline),
+                    100 * result.efficiency(baseline), result.gcMillis / (result.elapsedNanos / 1e9));
+        }
+        System.out.println();
+    }
+
+    private static void writeCsv(PrintWriter csv, MLDSA.SecurityLevel level, String engine,
+                                 Result result, Result baseline) {
+        double seconds = result.elapsedNanos / 1e9;
+        for (int op = 0; op < LoadConfig.OP_NAMES.length; op++) {
+            LatencyHistogram histogram = result.latencies[op];
+            if (histogram.count() == 0) {
+                continue;
+            }
+            csv.printf(Locale.ROOT, "%d,%s,%d,%s,%.1f,%.1f,%.1f,%.1f,%.1f,%.1f,%.1f,%.3f,%.2f,%.2f,%d,%.1f,%d%n",
+                    level.getValue(), engine, result.threads, LoadConfig.OP_NAMES[op],
+                    histogram.count() / seconds,
+                    histogram.percentile(50) / 1e3, histogram.percentile(90) / 1e3,
+                    histogram.percentile(99) / 1e3, histogram.percentile(99.9) / 1e3,
+                    histogram.max() / 1e3,
+                    result.totalOpsPerSecond(), result.speedup(baseline),
+                    result.allocatedBytes >= 0 ? result.allocatedBytes / seconds / (1 << 20) : -1.0,
+                    result.gcMillis / seconds, result.gcCount,
+                    result.cpuNanos >= 0 ? 100.0 * result.cpuNanos / result.elapsedNanos : -1.0,
+                    result.errors);
+        }
+    }
+
+    private static String formatPercentile(double percentile) {
+        return percentile == Math.rint(percentile) ? String.valueOf((int) percentile) : String.valueOf(percentile);
+    }
+
+    /**
+     * Run phase shared by the workers; the first worker failure stops the run
+     */
+    private static final class Phase {
+        volatile int value = PHASE_WARMUP;
+        volatile Throwable failure;
+
+        synchronized void advance(int next) {
+            if (failure == null) {
+                value = next;
+            }
+        }
+
+        synchronized void fail(Throwable t) {
+            if (failure == null) {
+                failure = t;
+            }
+            value = PHASE_STOP;
+            notifyAll();
+        }
+
+        /**
+         * Wait for {@code millis}, returning early if a worker failed
+         */
+        synchronized void await(long millis) throws InterruptedException {
+            long deadline = System.currentTimeMillis() + millis;
+            long remaining;
+            while (failure == null && (remaining = deadline - System.currentTimeMillis()) > 0) {
+                wait(remaining);
+            }
+        }
+    }
+
+    /**
+     * Keys, messages and signatures prepared before the run
+     */
+    private static final class Fixture {
+        final MLDSA.SecurityLevel level;
+        final MLDSA.KeyPair[] keys = new MLDSA.KeyPair[KEYS_PER_LEVEL];
+        // [size class][message]
+        byte[][][] messages;
+        // [key][size class][message]
+        byte[][][][] signatures;
+        int[] cumulativeSizeWeights;
+
+        private Fixture(MLDSA.SecurityLevel level) {
+            this.level = level;
+        }
+
+        static Fixture create(MLDSA.SecurityLevel level, LoadConfig config) throws MLDSA.MLDSAException {
+            Fixture fixture = new Fixture(level);
+            Random random = new Random(level.getValue());
+            int sizes = config.messageSizes.length;
+
+            fixture.messages = new byte[sizes][MESSAGES_PER_SIZE][];
+            for (int s = 0; s < sizes; s++) {
+                for (int m = 0; m < MESSAGES_PER_SIZE; m++) {
+                    byte[] message = new byte[config.messageSizes[s]];
+                    random.nextBytes(message);
+                    fixture.messages[s][m] = message;
+                }
+            }
+
+            fixture.signatures = new byte[KEYS_PER_LEVEL][sizes][MESSAGES_PER_SIZE][];
+            for (int k = 0; k < KEYS_PER_LEVEL; k++) {
+                fixture.keys[k] = MLDSA.generateKeyPair(level);
+                for (int s = 0; s < sizes; s++) {
+                    for (int m = 0; m < MESSAGES_PER_SIZE; m++) {
+                        fixture.signatures[k][s][m] =
+                                MLDSA.sign(fixture.messages[s][m], fixture.keys[k].getSecretKey(), level);
+                    }
+                }
+            }
+
+            fixture.cumulativeSizeWeights = cumulative(config.messageWeights);
+            return fixture;
+        }
+    }
+
+    private static final class Worker implements Runnable {
+        final LatencyHistogram[] latencies = new LatencyHistogram[LoadConfig.OP_NAMES.length];
+        long errors;
+
+        private final Fixture fixture;
+        private final Phase phase;
+        private final Random random;
+        private final int[] cumulativeOpWeights;
+
+        Worker(LoadConfig config, Fixture fixture, Phase phase, long seed) {
+            this.fixture = fixture;
+            this.phase = phase;
+            this.random = new Random(seed);
+            this.cumulativeOpWeights = cumulative(config.opWeights);
+            for (int op = 0; op < latencies.length; op++) {
+                latencies[op] = new LatencyHistogram();
+            }
+        }
+
+        @Override
+        public void run() {
+            MLDSA.SecurityLevel level = fixture.level;
+            int current;
+            while ((current = phase.value) != PHASE_STOP) {
+                int op = pick(random, cumulativeOpWeights);
+                int key = random.nextInt(KEYS_PER_LEVEL);
+                int size = pick(random, fixture.cumulativeSizeWeights);
+                int index = random.nextInt(MESSAGES_PER_SIZE);
+                byte[] message = fixture.messages[size][index];
+
+                long start = System.nanoTime();
+                try {
+                    switch (op) {
+                        case LoadConfig.OP_KEYGEN:
+                            MLDSA.generateKeyPair(level);
+                            break;
+                        case LoadConfig.OP_SIGN:
+                            MLDSA.sign(message, fixture.keys[key].getSecretKey(), level);
+                            break;
+                        default:
+                            if (!MLDSA.verify(fixture.signatures[key][size][index], message,
+                                    fixture.keys[key].getPublicKey(), level)) {
+                                errors++;
+                            }
+                            break;
+                    }
+                } catch (Throwable t) {
+                    // Includes UnsatisfiedLinkError and runtime exceptions, which would otherwise
+                    // silently end this thread and show up as a scaling cliff
+                    errors++;
+                    phase.fail(t);
+                    return;
+                }
+                long elapsed = System.nanoTime() - start;
+
+                if (current == PHASE_MEASURE) {
+                    latencies[op].record(elapsed);
+                }
+            }
+        }
+    }
+
+    private static final class Result {
+        final int threads;
+        final long elapsedNanos;
+        final LatencyHistogram[] latencies = new LatencyHistogram[LoadConfig.OP_NAMES.length];
+        long allocatedBytes;
+        long gcMillis;
+        long gcCount;
+        long cpuNanos;
+        long errors;
+        Throwable failure;
+
+        Result(int threads, long elapsedNanos) {
+            this.threads = threads;
+            this.elapsedNanos = elapsedNanos;
+            for (int op = 0; op < latencies.length; op++) {
+                latencies[op] = new LatencyHistogram();
+            }
+        }
+
+        double totalOpsPerSecond() {
+            long total = 0;
+            for (LatencyHistogram histogram : latencies) {
+                total += histogram.count();
+            }
+            return total / (elapsedNanos / 1e9);
+        }
+
+        double speedup(Result baseline) {
+            return totalOpsPerSecond() / baseline.totalOpsPerSecond();
+        }
+
+        double efficiency(Result baseline) {
+            return speedup(baseline) * baseline.threads / threads;
+        }
+    }
+
+    /**
+     * JVM counters sampled at the start and end of the measured window
+     */
+    private static final class Snapshot {
+        long allocatedBytes = -1;
+        long gcMillis;
+        long gcCount;
+        long cpuNanos = -1;
+
+        static Snapshot take(long[] threadIds) {
+            Snapshot snapshot = new Snapshot();
+
+            ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+            if (threads instanceof com.sun.management.ThreadMXBean) {
+                com.sun.management.ThreadMXBean hotspot = (com.sun.management.ThreadMXBean) threads;
+                if (hotspot.isThreadAllocatedMemorySupported() && hotspot.isThreadAllocatedMemoryEnabled()) {
+                    long total = 0;
+                    for (long bytes : hotspot.getThreadAllocatedBytes(threadIds)) {
+                        if (bytes > 0) {
+                            total += bytes;
+                        }
+                    }
+                    snapshot.allocatedBytes = total;
+                }
+            }
+
+            for (GarbageCollectorMXBean gc : ManagementFactory.getGarbageCollectorMXBeans()) {
+                snapshot.gcMillis += Math.max(0, gc.getCollectionTime());
+                snapshot.gcCount += Math.max(0, gc.getCollectionCount());
+            }
+
+            OperatingSystemMXBean os = ManagementFactory.getOperatingSystemMXBean();
+            if (os instanceof com.sun.management.OperatingSystemMXBean) {
+                snapshot.cpuNanos = ((com.sun.management.OperatingSystemMXBean) os).getProcessCpuTime();
+            }
+            return snapshot;
+        }
+    }
+
+    private static int[] cumulative(int[] weights) {
+        int[] result = new int[weights.length];
+        int total = 0;
+        for (int i = 0; i < weights.length; i++) {
+            total += Math.max(0, weights[i]);
+            result[i] = total;
+        }
+        return result;
+    }
+
+    private static int pick(Random random, int[] cumulativeWeights) {
+        int value = random.nextInt(cumulativeWeights[cumulativeWeights.length - 1]);
+        for (int i = 0; i < cumulativeWeights.length; i++) {
+            if (value < cumulativeWeights[i]) {
+                return i;
+            }
+        }
+        return cumulativeWeights.length - 1;
+    }
+}
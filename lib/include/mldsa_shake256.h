@@ -0,0 +1,28 @@
+/*
+ * Incremental SHAKE256 exported by the single-level libraries (lib44, lib65, lib87)
+ * Implemented in src/mldsa_native_level.c on top of the lib-native FIPS 202 code
+ */
+
+#ifndef MLDSA_SHAKE256_H
+#define MLDSA_SHAKE256_H
+
+#include <stddef.h>
+#include <stdint.h>
+
+#ifdef __cplusplus
+extern "C" {
+#endif
+
+/* Size of the opaque state buffer passed to the functions below */
+size_t mldsa_shake256_state_bytes(void);
+
+void mldsa_shake256_init(uint8_t *state);
+void mldsa_shake256_absorb(uint8_t *state, const uint8_t *in, size_t inlen);
+void mldsa_shake256_finalize(uint8_t *state);
+void mldsa_shake256_squeeze(uint8_t *out, size_t outlen, uint8_t *state);
+
+#ifdef __cplusplus
+}
+#endif
+
+#endif /* MLDSA_SHAKE256_H */
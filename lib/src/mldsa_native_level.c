@@ -0,0 +1,69 @@
+/*
+ * Copyright (c) The mlkem-native project authors
+ * Copyright (c) The lib-native project authors
+ * SPDX-License-Identifier: Apache-2.0 OR ISC OR MIT
+ */
+
+/* Single instance of lib-native for one security level */
+
+/* MLD_CONFIG_PARAMETER_SET (44, 65 or 87) is passed by the build system */
+#if !defined(MLD_CONFIG_PARAMETER_SET)
+#error "MLD_CONFIG_PARAMETER_SET must be defined for a single-level build"
+#endif
+
+/* Mark as internal build before including lib-native */
+#define MLD_BUILD_INTERNAL
+
+/* Include level-independent code */
+#define MLD_CONFIG_MULTILEVEL_WITH_SHARED 1
+/* Keep level-independent headers (FIPS 202) for the SHAKE256 wrappers below */
+#define MLD_CONFIG_MONOBUILD_KEEP_SHARED_HEADERS
+#include "mldsa-native/mldsa/mldsa_native.c"
+#undef MLD_CONFIG_MONOBUILD_KEEP_SHARED_HEADERS
+#undef MLD_CONFIG_MULTILEVEL_WITH_SHARED
+
+/*
+ * Incremental SHAKE256 over a caller-owned state buffer.
+ *
+ * The state is opaque to the caller (mldsa_shake256_state_bytes() bytes) and is
+ * copied to an aligned context for every call, so the JNI layer can keep it in
+ * a Java byte[] with nothing to free.
+ */
+#include <string.h>
+#include "include/mldsa_shake256.h"
+
+size_t mldsa_shake256_state_bytes(void)
+{
+  return sizeof(mld_shake256ctx);
+}
+
+void mldsa_shake256_init(uint8_t *state)
+{
+  mld_shake256ctx ctx;
+  mld_shake256_init(&ctx);
+  memcpy(state, &ctx, sizeof(ctx));
+}
+
+void mldsa_shake256_absorb(uint8_t *state, const uint8_t *in, size_t inlen)
+{
+  mld_shake256ctx ctx;
+  memcpy(&ctx, state, sizeof(ctx));
+  mld_shake256_absorb(&ctx, in, inlen);
+  memcpy(state, &ctx, sizeof(ctx));
+}
+
+void mldsa_shake256_finalize(uint8_t *state)
+{
+  mld_shake256ctx ctx;
+  memcpy(&ctx, state, sizeof(ctx));
+  mld_shake256_finalize(&ctx);
+  memcpy(state, &ctx, sizeof(ctx));
+}
+
+void mldsa_shake256_squeeze(uint8_t *out, size_t outlen, uint8_t *state)
+{
+  mld_shake256ctx ctx;
+  memcpy(&ctx, state, sizeof(ctx));
+  mld_shake256_squeeze(out, outlen, &ctx);
+  memcpy(state, &ctx, sizeof(ctx));
+}